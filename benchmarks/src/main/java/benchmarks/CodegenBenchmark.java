@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import ast.Program;
+import driver.ParallelCompiler;
+import scanner.ScanErrorException;
+
+/**
+ * Measures how long Program.compile takes to emit the MIPS code of a generated program,
+ * with and without register allocation, and how long a ParallelCompiler takes to emit it
+ * one unit per BLOCK_UNIT statements on the common pool.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodegenBenchmark
+{
+    @Param({"1000", "10000"})
+    public int statements;
+
+    private Program program;
+    private File output;
+
+    /**
+     * Parses the program to be compiled and creates the output file
+     * @throws IOException if the output file cannot be created
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Setup
+    public void setUp() throws IOException, ScanErrorException
+    {
+        program = Programs.parse(Programs.straightLine(statements));
+        output = File.createTempFile("codegen", ".asm");
+        output.deleteOnExit();
+    }
+
+    /**
+     * Emits the program, pushing every intermediate value onto the stack
+     */
+    @Benchmark
+    public void compileStack()
+    {
+        program.compile(output.getPath(), false);
+    }
+
+    /**
+     * Emits the program with Sethi-Ullman register allocation
+     */
+    @Benchmark
+    public void compileRegisters()
+    {
+        program.compile(output.getPath(), true);
+    }
+
+    /**
+     * Emits the program a unit at a time on the common pool, pushing every intermediate
+     * value onto the stack
+     */
+    @Benchmark
+    public void compileParallel()
+    {
+        new ParallelCompiler(false, false).compile(program, output.getPath());
+    }
+}
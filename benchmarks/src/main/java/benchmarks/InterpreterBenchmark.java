@@ -0,0 +1,111 @@
+package benchmarks;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import ast.Program;
+import closure.*;
+import environment.Environment;
+import jvm.JvmRunner;
+import scanner.ScanErrorException;
+import vm.*;
+
+/**
+ * Measures how long it takes to run a loop kernel and a recursion kernel with
+ * Program.exec, as compiled closures, with the bytecode VirtualMachine and as a loaded JVM class.
+ * The output of WRITELN is discarded.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpreterBenchmark
+{
+    @Param({"loop", "recursion"})
+    public String kernel;
+
+    private PrintStream stdout;
+    private PrintStream discard;
+    private Program program;
+    private StatementCode closures;
+    private Bytecode bytecode;
+    private Method jvmRun;
+
+    /**
+     * Parses the kernel, compiles it for each backend and discards the standard output
+     * @throws Exception if the kernel cannot be parsed or loaded
+     */
+    @Setup
+    public void setUp() throws Exception
+    {
+        String source;
+        if (kernel.equals("loop"))
+        {
+            source = Programs.loopKernel(300, 1000);
+        }
+        else
+        {
+            source = Programs.recursionKernel(22);
+        }
+        program = Programs.parse(source);
+        closures = ClosureRunner.compile(program);
+        bytecode = program.compile();
+        jvmRun = new JvmRunner().load(program).getMethod("run");
+        stdout = System.out;
+        discard = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(discard);
+    }
+
+    /**
+     * Restores the standard output
+     */
+    @TearDown
+    public void tearDown()
+    {
+        System.setOut(stdout);
+    }
+
+    /**
+     * Runs the kernel with the tree-walking interpreter
+     */
+    @Benchmark
+    public void exec()
+    {
+        program.exec(new Environment());
+    }
+
+    /**
+     * Runs the kernel as the closures that were compiled during setup
+     */
+    @Benchmark
+    public void closures()
+    {
+        closures.exec(new Environment());
+    }
+
+    /**
+     * Runs the kernel with the bytecode VirtualMachine
+     */
+    @Benchmark
+    public void vm()
+    {
+        new VirtualMachine(discard).run(bytecode);
+    }
+
+    /**
+     * Runs the kernel as a JVM class that was loaded during setup
+     * @throws Exception if the run method throws an exception
+     */
+    @Benchmark
+    public void jvm() throws Exception
+    {
+        jvmRun.invoke(null);
+    }
+}
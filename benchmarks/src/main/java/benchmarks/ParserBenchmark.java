@@ -0,0 +1,74 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import parser.Parser;
+import scanner.*;
+import ast.Program;
+
+/**
+ * Measures how long Parser.parseProgram takes to scan, parse and resolve a generated program,
+ * and how long a program with many procedures takes with parseProgram and with
+ * parseProgramParallel.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark
+{
+    @Param({"1000", "10000"})
+    public int statements;
+
+    private String source;
+    private String procedures;
+
+    /**
+     * Generates the programs to be parsed
+     */
+    @Setup
+    public void setUp()
+    {
+        source = Programs.straightLine(statements);
+        procedures = Programs.manyProcedures(statements / 50, 50);
+    }
+
+    /**
+     * Parses the program
+     * @return the parsed Program
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Benchmark
+    public Program parseProgram() throws ScanErrorException
+    {
+        return new Parser(new Scanner(source)).parseProgram();
+    }
+
+    /**
+     * Parses the program with many procedures one procedure after another
+     * @return the parsed Program
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Benchmark
+    public Program parseProcedures() throws ScanErrorException
+    {
+        return new Parser(new Scanner(procedures)).parseProgram();
+    }
+
+    /**
+     * Parses the program with many procedures, parsing the procedures in parallel
+     * @return the parsed Program
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Benchmark
+    public Program parseProceduresParallel() throws ScanErrorException
+    {
+        return new Parser(new Scanner(procedures)).parseProgramParallel();
+    }
+}
@@ -0,0 +1,123 @@
+package benchmarks;
+
+import parser.Parser;
+import scanner.*;
+
+/**
+ * Checks that the Parser does not need more stack for longer programs. It parses a block of
+ * a million statements and an expression of a hundred thousand terms on a thread with
+ * a small stack, which would overflow if the Parser recursed once per statement or operator.
+ *
+ * Usage:
+ * java -cp target/benchmarks.jar benchmarks.ParserStress
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public final class ParserStress
+{
+    private static final long STACK_SIZE = 512 * 1024;
+
+    /**
+     * ParserStress only holds static methods and should not be instantiated
+     */
+    private ParserStress()
+    {
+    }
+
+    /**
+     * Generates a program whose main block has a number of assignments
+     * @param statements the number of statements in the block
+     * @return the source code of the program
+     */
+    public static String longBlock(int statements)
+    {
+        StringBuilder s = new StringBuilder("BEGIN\n");
+        for (int i = 0; i < statements; i++)
+        {
+            s.append("x := x + ").append(i % 10).append(";\n");
+        }
+        return s.append("END;\n.").toString();
+    }
+
+    /**
+     * Generates an assignment of an expression that adds, subtracts, multiplies and divides
+     * a number of terms
+     * @param terms the number of terms in the expression
+     * @return the source code of the assignment
+     */
+    public static String longExpression(int terms)
+    {
+        String[] ops = {" + ", " * ", " - ", " / "};
+        StringBuilder s = new StringBuilder("x := 1");
+        for (int i = 1; i < terms; i++)
+        {
+            s.append(ops[i % ops.length]).append(i % 9 + 1);
+        }
+        return s.append(";\n.").toString();
+    }
+
+    /**
+     * Runs a task on a thread with a small stack and waits for it to finish
+     * @param name the name of the task, which is printed with its time
+     * @param task the task
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    private static void runWithSmallStack(String name, Runnable task) throws InterruptedException
+    {
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () ->
+        {
+            try
+            {
+                long start = System.nanoTime();
+                task.run();
+                System.out.println(name + ": parsed in "
+                        + (System.nanoTime() - start) / 1000000 + " ms");
+            }
+            catch (Throwable t)
+            {
+                failure[0] = t;
+            }
+        }, name, STACK_SIZE);
+        thread.start();
+        thread.join();
+        if (failure[0] != null)
+        {
+            throw new RuntimeException(name + " failed", failure[0]);
+        }
+    }
+
+    /**
+     * Parses the long block and the long expression, each on a thread with a 512 KB stack
+     * @param args not used
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException
+    {
+        String block = longBlock(1000000);
+        runWithSmallStack("1000000 statement block", () ->
+        {
+            try
+            {
+                new Parser(new Scanner(block)).parseProgram();
+            }
+            catch (ScanErrorException e)
+            {
+                throw new RuntimeException(e);
+            }
+        });
+        String expression = longExpression(100000);
+        runWithSmallStack("100000 term expression", () ->
+        {
+            try
+            {
+                new Parser(new Scanner(expression)).parseStatement();
+            }
+            catch (ScanErrorException e)
+            {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+}
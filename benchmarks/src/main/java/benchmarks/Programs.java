@@ -0,0 +1,161 @@
+package benchmarks;
+
+import ast.Program;
+import parser.Parser;
+import scanner.*;
+
+/**
+ * The Programs class generates the source code of the programs used by the benchmarks.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public final class Programs
+{
+    private static final int VARIABLES = 50;
+
+    /**
+     * Programs only holds static methods and should not be instantiated
+     */
+    private Programs()
+    {
+    }
+
+    /**
+     * Generates a program with a block of assignments, if statements and while loops
+     * over a set of global variables. It is meant to be scanned, parsed and compiled,
+     * not executed.
+     * @param statements the number of statements in the main block
+     * @return the source code of the program
+     */
+    public static String straightLine(int statements)
+    {
+        StringBuilder s = new StringBuilder();
+        s.append("VAR ");
+        for (int i = 0; i < VARIABLES; i++)
+        {
+            s.append(i == 0 ? "" : ", ").append("value").append(i);
+        }
+        s.append(";\nBEGIN\n");
+        for (int i = 0; i < statements; i++)
+        {
+            String a = "value" + (i % VARIABLES);
+            String b = "value" + ((i * 7 + 3) % VARIABLES);
+            String c = "value" + ((i * 13 + 5) % VARIABLES);
+            switch (i % 4)
+            {
+                case 0:
+                    s.append("    ").append(a).append(" := ").append(b).append(" + ").append(i)
+                            .append(" * (").append(c).append(" - 3) / 7;\n");
+                    break;
+                case 1:
+                    s.append("    IF ").append(a).append(" > ").append(b).append(" THEN ")
+                            .append(c).append(" := ").append(a).append(" - ").append(b).append(";\n");
+                    break;
+                case 2:
+                    s.append("    WHILE ").append(a).append(" < 0 DO ").append(a)
+                            .append(" := ").append(a).append(" + 1;\n");
+                    break;
+                default:
+                    s.append("    // ").append(a).append(" is printed\n")
+                            .append("    WRITELN(").append(a).append(" * 2 + -").append(b).append(");\n");
+                    break;
+            }
+        }
+        s.append("END;\n.");
+        return s.toString();
+    }
+
+    /**
+     * Generates a program with many procedures, each with a block of assignments,
+     * if statements and while loops over its parameters and locals, followed by a statement
+     * that calls them. It is meant to be scanned, parsed and compiled, not executed.
+     * @param procedures the number of procedures
+     * @param statements the number of statements in each procedure
+     * @return the source code of the program
+     */
+    public static String manyProcedures(int procedures, int statements)
+    {
+        StringBuilder s = new StringBuilder();
+        s.append("VAR total;\n");
+        for (int p = 0; p < procedures; p++)
+        {
+            s.append("PROCEDURE proc").append(p).append("(x, y, z);\nBEGIN\n");
+            for (int i = 0; i < statements; i++)
+            {
+                switch (i % 3)
+                {
+                    case 0:
+                        s.append("    x := y + ").append(i).append(" * (z - 3) / 7;\n");
+                        break;
+                    case 1:
+                        s.append("    IF x > y THEN z := x - y;\n");
+                        break;
+                    default:
+                        s.append("    WHILE x < 0 DO x := x + 1;\n");
+                        break;
+                }
+            }
+            s.append("    proc").append(p).append(" := x + y + z;\nEND;\n");
+        }
+        s.append("BEGIN\n    total := 0;\n");
+        for (int p = 0; p < procedures; p++)
+        {
+            s.append("    total := total + proc").append(p).append("(1, 2, 3);\n");
+        }
+        s.append("    WRITELN(total);\nEND;\n.");
+        return s.toString();
+    }
+
+    /**
+     * Generates a program with two nested while loops doing arithmetic on global variables
+     * @param outer the number of iterations of the outer loop
+     * @param inner the number of iterations of the inner loop
+     * @return the source code of the program
+     */
+    public static String loopKernel(int outer, int inner)
+    {
+        return "VAR i, j, sum;\n" +
+                "BEGIN\n" +
+                "    i := 0;\n" +
+                "    sum := 0;\n" +
+                "    WHILE i < " + outer + " DO\n" +
+                "    BEGIN\n" +
+                "        j := 0;\n" +
+                "        WHILE j < " + inner + " DO\n" +
+                "        BEGIN\n" +
+                "            sum := sum + i * j - (sum / 7);\n" +
+                "            j := j + 1;\n" +
+                "        END;\n" +
+                "        i := i + 1;\n" +
+                "    END;\n" +
+                "    WRITELN(sum);\n" +
+                "END;\n.";
+    }
+
+    /**
+     * Generates a program that computes a Fibonacci number with a doubly recursive procedure
+     * @param n the index of the Fibonacci number
+     * @return the source code of the program
+     */
+    public static String recursionKernel(int n)
+    {
+        return "PROCEDURE fib(n);\n" +
+                "BEGIN\n" +
+                "    fib := n;\n" +
+                "    IF n > 1 THEN fib := fib(n - 1) + fib(n - 2);\n" +
+                "END;\n" +
+                "WRITELN(fib(" + n + "));\n.";
+    }
+
+    /**
+     * Parses the source code of a program
+     * @param source the source code
+     * @return the parsed Program
+     * @throws ScanErrorException if the source contains a character that does not start a token
+     */
+    public static Program parse(String source) throws ScanErrorException
+    {
+        return new Parser(new Scanner(source)).parseProgram();
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import scanner.*;
+
+/**
+ * Measures how long it takes to scan every token of a generated program,
+ * with scanner.Scanner reading a String and with scanner.MappedScanner reading a buffer.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScannerBenchmark
+{
+    @Param({"1000", "100000"})
+    public int statements;
+
+    private String source;
+    private ByteBuffer bytes;
+
+    /**
+     * Generates the program to be scanned
+     */
+    @Setup
+    public void setUp()
+    {
+        source = Programs.straightLine(statements);
+        byte[] b = source.getBytes(StandardCharsets.ISO_8859_1);
+        bytes = ByteBuffer.allocateDirect(b.length);
+        bytes.put(b).flip();
+    }
+
+    /**
+     * Scans the program with Scanner.nextToken
+     * @param bh the Blackhole that consumes the tokens
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Benchmark
+    public void nextToken(Blackhole bh) throws ScanErrorException
+    {
+        Scanner sc = new Scanner(source);
+        while (sc.hasNext())
+        {
+            bh.consume(sc.nextToken());
+        }
+    }
+
+    /**
+     * Scans the program with MappedScanner.nextKind, which does not create Strings
+     * @param bh the Blackhole that consumes the tokens
+     * @throws ScanErrorException if the program cannot be scanned
+     */
+    @Benchmark
+    public void mappedNextKind(Blackhole bh) throws ScanErrorException
+    {
+        MappedScanner sc = new MappedScanner(bytes.duplicate());
+        TokenKind kind = sc.nextKind();
+        while (kind != TokenKind.EOF)
+        {
+            bh.consume(sc.getStart());
+            kind = sc.nextKind();
+        }
+    }
+}
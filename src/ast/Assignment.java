@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The Assignment class defines a statement that assigns an expression to a variable
@@ -12,6 +15,9 @@ public class Assignment extends Statement
 {
     private String var;
     private Expression exp;
+    private boolean local;
+    private int slot;
+    private String profileName;
 
     /**
      * Constructor for objects of class Assignment
@@ -25,26 +31,187 @@ public class Assignment extends Statement
     }
 
     /**
-     * Evaluates an expression and assigns the value of that expression to the variable
+     * Evaluates an expression and assigns the value of that expression to the variable.
+     * If profiling is on, the assignment is recorded under the name of the variable
      * @param env the environment containing the variables and procedures used during execution
      */
     @Override
     public void exec(Environment env)
     {
-        env.setVariable(var, exp.eval(env));
+        Profiler profiler = env.getProfiler();
+        if (profiler != null)
+        {
+            profile(env, profiler);
+            return;
+        }
+        int value = exp.eval(env);
+        if (local)
+        {
+            env.getLocals().set(slot, value);
+        }
+        else
+        {
+            env.getGlobals().set(slot, value);
+        }
+    }
+
+    /**
+     * Runs the assignment and records it in a Profiler
+     * @param env the environment containing the variables and procedures used during execution
+     * @param profiler the Profiler of the environment
+     */
+    private void profile(Environment env, Profiler profiler)
+    {
+        if (profileName == null)
+        {
+            profileName = local ? "ASSIGN " + profiler.currentProcedure() + "." + var
+                    : "ASSIGN " + var;
+        }
+        long start = profiler.start(profileName);
+        int value = exp.eval(env);
+        if (local)
+        {
+            env.getLocals().set(slot, value);
+        }
+        else
+        {
+            env.getGlobals().set(slot, value);
+        }
+        profiler.record(profileName, start);
+    }
+
+    /**
+     * Resolves the expression and assigns a frame slot to the variable.
+     * A variable that has not been declared is created in the current scope
+     * @param scope the scope in which the assignment appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        exp.resolve(scope);
+        Scope owner = scope.resolve(var);
+        local = !owner.isGlobal();
+        slot = owner.lookup(var);
+    }
+
+    /**
+     * Replaces the assignment with a TailCall if it assigns a call of the procedure to itself,
+     * possibly added to or multiplied by another value, to the variable with the name of
+     * the procedure
+     * @param proc the procedure whose body contains the assignment
+     * @return the TailCall, or this Assignment if it is not a tail call
+     */
+    @Override
+    public Statement markTailCalls(ProcedureDeclaration proc)
+    {
+        if (!local || slot != 0)
+        {
+            return this;
+        }
+        TailCall call = TailCall.match(proc, exp);
+        if (call == null)
+        {
+            return this;
+        }
+        return call;
+    }
+
+    /**
+     * Removes the assignment if the variable is not live after it and the expression has no
+     * effect. Otherwise, the variable is not live before the assignment, but the variables
+     * read by the expression are
+     * @param live the variables that are live after the assignment
+     * @return an empty Block if the assignment is dead, otherwise this Assignment
+     */
+    @Override
+    public Statement eliminateDeadCode(Liveness live)
+    {
+        if (!live.isLive(local, slot) && !exp.hasEffect())
+        {
+            return new Block();
+        }
+        live.assign(local, slot);
+        exp.addReads(live);
+        return this;
     }
 
     /**
      * Compiles the expression that the variable is being assigned to
-     * Stores the value of the expression into the variable
+     * Stores the value of the expression into the variable,
+     * in the frame of the procedure if it is local
      * @param e the Emitter to output the MIPS instructions
      */
     @Override
     public void compile(Emitter e)
     {
+        String address = local ? e.frameAddress(slot) : "var" + var;
+        if (e.isRegisterAllocation())
+        {
+            exp.compile(e, 0);
+            e.emit("# Assigns " + e.register(0) + " to " + (local ? var : "var" + var));
+            e.emit("sw " + e.register(0) + " " + address + "\n");
+            return;
+        }
         exp.compile(e);
+        if (local)
+        {
+            e.emit("# Assigns $v0 to " + var);
+            e.emit("sw $v0 " + address + "\n");
+            return;
+        }
         e.emit("# Assigns $v0 to var" + var);
         e.emit("la $t0 var" + var);
         e.emit("sw $v0 ($t0)\n");
     }
+
+    /**
+     * Pushes the value of the expression and stores it into the slot of the variable
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        exp.compile(b);
+        b.emit(local ? Opcode.STORE_LOCAL : Opcode.STORE_GLOBAL, slot);
+    }
+
+    /**
+     * Pushes the value of the expression and stores it into the variable
+     * @param j the JvmEmitter for the method that contains the assignment
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        exp.compile(j);
+        if (local)
+        {
+            j.emitStoreLocal(slot);
+        }
+        else
+        {
+            j.emitStoreGlobal(slot);
+        }
+    }
+
+    /**
+     * Simplifies the expression that is assigned
+     * @return this Assignment
+     */
+    @Override
+    public Statement optimize()
+    {
+        exp = exp.optimize();
+        return this;
+    }
+
+    /**
+     * Compiles the assignment to a closure that stores the value of the expression
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the assignment
+     */
+    @Override
+    public StatementCode compile(ClosureCompiler c)
+    {
+        return c.store(local, slot, exp.compile(c));
+    }
 }
@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The BinOp class defines an expression that performs a binary operation on two expressions
@@ -35,26 +38,76 @@ public class BinOp extends Expression
      */
     @Override
     public int eval(Environment env)
+    {
+        int value1 = exp1.eval(env);
+        return apply(value1, exp2.eval(env));
+    }
+
+    /**
+     * Performs the binary operation on two values
+     * @param value1 the value of the first expression
+     * @param value2 the value of the second expression
+     * @return the result of the binary operation
+     */
+    private int apply(int value1, int value2)
     {
         if (op.equals("+"))
         {
-            return exp1.eval(env) + exp2.eval(env);
+            return value1 + value2;
         }
         else if (op.equals("-"))
         {
-            return exp1.eval(env) - exp2.eval(env);
+            return value1 - value2;
         }
         else if (op.equals("*"))
         {
-            return exp1.eval(env) * exp2.eval(env);
+            return value1 * value2;
         }
         else if (op.equals("/"))
         {
-            return exp1.eval(env) / exp2.eval(env);
+            return value1 / value2;
         }
         return 0;
     }
 
+    /**
+     * Gets the operator of the binary operation
+     * @return the operator, which is +, -, * or /
+     */
+    public String getOp()
+    {
+        return op;
+    }
+
+    /**
+     * Gets the left operand
+     * @return the first expression
+     */
+    public Expression getExp1()
+    {
+        return exp1;
+    }
+
+    /**
+     * Gets the right operand
+     * @return the second expression
+     */
+    public Expression getExp2()
+    {
+        return exp2;
+    }
+
+    /**
+     * Resolves the variables in both expressions
+     * @param scope the scope in which the binary operation appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        exp1.resolve(scope);
+        exp2.resolve(scope);
+    }
+
     /**
      * Compiles the first expression and puts the register onto a stack
      * compiles the second expression, and performs the operation on the two values
@@ -63,6 +116,12 @@ public class BinOp extends Expression
     @Override
     public void compile(Emitter e)
     {
+        if (e.isRegisterAllocation())
+        {
+            compile(e, 0);
+            e.emit("move $v0 " + e.register(0) + "\n");
+            return;
+        }
         exp1.compile(e);
         e.emitPush("$v0");
         exp2.compile(e);
@@ -89,4 +148,188 @@ public class BinOp extends Expression
             e.emit("divu $v0 $t0 $v0\n");
         }
     }
+
+    /**
+     * Checks to see if either operand calls a procedure
+     * @return true if either operand contains a procedure call; otherwise,
+     * false
+     */
+    @Override
+    public boolean hasCall()
+    {
+        return exp1.hasCall() || exp2.hasCall();
+    }
+
+    /**
+     * Checks to see if either operand may have an effect, or if the operation is a division
+     * whose divisor is not a constant other than zero, which may fail
+     * @return true if the binary operation may have an effect; otherwise,
+     * false
+     */
+    @Override
+    public boolean hasEffect()
+    {
+        if (op.equals("/") && !(exp2 instanceof Number && ((Number) exp2).getValue() != 0))
+        {
+            return true;
+        }
+        return exp1.hasEffect() || exp2.hasEffect();
+    }
+
+    /**
+     * Records the variables read by both operands as live
+     * @param live the variables that are live after the binary operation
+     */
+    @Override
+    public void addReads(Liveness live)
+    {
+        exp1.addReads(live);
+        exp2.addReads(live);
+    }
+
+    /**
+     * Gets the number of registers needed to evaluate the binary operation.
+     * If both operands need the same number of registers, one more register is needed
+     * to hold the first operand while the second one is evaluated
+     * @return the Sethi-Ullman number of the binary operation
+     */
+    @Override
+    public int registerNeed()
+    {
+        int need1 = exp1.registerNeed();
+        int need2 = exp2.registerNeed();
+        if (need1 == need2)
+        {
+            return need1 + 1;
+        }
+        return Math.max(need1, need2);
+    }
+
+    /**
+     * Evaluates both operands into registers and performs the operation on them
+     * @param e the Emitter to output the MIPS instructions
+     * @param reg the index of the register that holds the result
+     */
+    @Override
+    public void compile(Emitter e, int reg)
+    {
+        String[] operands = compileOperands(e, exp1, exp2, reg);
+        String instruction = "addu";
+        if (op.equals("-"))
+        {
+            instruction = "subu";
+        }
+        else if (op.equals("*"))
+        {
+            instruction = "mulu";
+        }
+        else if (op.equals("/"))
+        {
+            instruction = "divu";
+        }
+        e.emit(instruction + " " + e.register(reg) + " " + operands[0] + " " + operands[1]);
+    }
+
+    /**
+     * Pushes both expressions and performs the operation on the two values
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        exp1.compile(b);
+        exp2.compile(b);
+        b.emit(Opcode.arithmetic(op));
+    }
+
+    /**
+     * Pushes both expressions and performs the operation on the two values
+     * @param j the JvmEmitter for the method that contains the operation
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        exp1.compile(j);
+        exp2.compile(j);
+        j.emitArithmetic(op);
+    }
+
+    /**
+     * Simplifies both expressions, then computes the operation if both are numbers
+     * and removes the identities x+0, 0+x, x-0, x*1, 1*x and x/1.
+     * Multiplying a variable by 0 gives 0. Division by 0 is left for run time
+     * @return the simplified expression
+     */
+    @Override
+    public Expression optimize()
+    {
+        exp1 = exp1.optimize();
+        exp2 = exp2.optimize();
+        boolean constant1 = exp1 instanceof Number;
+        boolean constant2 = exp2 instanceof Number;
+        int value1 = constant1 ? ((Number) exp1).getValue() : 0;
+        int value2 = constant2 ? ((Number) exp2).getValue() : 0;
+        if (constant1 && constant2 && !(op.equals("/") && value2 == 0))
+        {
+            return new Number(apply(value1, value2));
+        }
+        if (op.equals("+"))
+        {
+            if (constant1 && value1 == 0)
+            {
+                return exp2;
+            }
+            if (constant2 && value2 == 0)
+            {
+                return exp1;
+            }
+        }
+        else if (op.equals("-"))
+        {
+            if (constant2 && value2 == 0)
+            {
+                return exp1;
+            }
+        }
+        else if (op.equals("*"))
+        {
+            if (constant1 && value1 == 1)
+            {
+                return exp2;
+            }
+            if (constant2 && value2 == 1)
+            {
+                return exp1;
+            }
+            if ((constant1 && value1 == 0 && exp2 instanceof Variable) ||
+                    (constant2 && value2 == 0 && exp1 instanceof Variable))
+            {
+                return new Number(0);
+            }
+        }
+        else if (op.equals("/"))
+        {
+            if (constant2 && value2 == 1)
+            {
+                return exp1;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Compiles the binary operation to a closure for its operator,
+     * using a closure with a constant operand if the second expression is a number
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the binary operation
+     */
+    @Override
+    public ExpressionCode compile(ClosureCompiler c)
+    {
+        if (exp2 instanceof Number)
+        {
+            return c.arithmetic(op, exp1.compile(c), ((Number) exp2).getValue());
+        }
+        return c.arithmetic(op, exp1.compile(c), exp2.compile(c));
+    }
 }
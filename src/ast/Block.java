@@ -1,9 +1,12 @@
 package ast;
 
+import closure.*;
 import java.util.*;
 
 import emitter.Emitter;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The Block class contains List of statements that it can execute
@@ -23,6 +26,33 @@ public class Block extends Statement
         this.stmts = stmts;
     }
 
+    /**
+     * Constructor for an empty Block, which does nothing
+     */
+    public Block()
+    {
+        this(new ArrayList<Statement>());
+    }
+
+    /**
+     * Gets the statements of the Block
+     * @return the statements, in the order they are run
+     */
+    public List<Statement> getStatements()
+    {
+        return stmts;
+    }
+
+    /**
+     * Checks to see if the Block has no statements
+     * @return true if the Block is empty; otherwise,
+     * false
+     */
+    public boolean isEmpty()
+    {
+        return stmts.isEmpty();
+    }
+
     /**
      * Evaluates all the statements in the Block
      * @param env the environment containing the variables and procedures used for evaluation
@@ -36,6 +66,70 @@ public class Block extends Statement
         }
     }
 
+    /**
+     * Resolves all the statements in the Block
+     * @param scope the scope in which the Block appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        for (Statement stmt: stmts)
+        {
+            stmt.resolve(scope);
+        }
+    }
+
+    /**
+     * Marks the tail calls in the last statement of the Block
+     * @param proc the procedure whose body contains the Block
+     * @return this Block
+     */
+    @Override
+    public Statement markTailCalls(ProcedureDeclaration proc)
+    {
+        if (!stmts.isEmpty())
+        {
+            int last = stmts.size() - 1;
+            stmts.set(last, stmts.get(last).markTailCalls(proc));
+        }
+        return this;
+    }
+
+    /**
+     * Removes the dead code in the statements of the Block, going backwards from the last one,
+     * and removes the statements that become empty. The statements after a loop that never
+     * ends can never run, so they are removed as well
+     * @param live the variables that are live after the Block
+     * @return this Block
+     */
+    @Override
+    public Statement eliminateDeadCode(Liveness live)
+    {
+        int end = stmts.size();
+        for (int i = 0; i < end; i++)
+        {
+            if (stmts.get(i) instanceof While && ((While) stmts.get(i)).isInfinite())
+            {
+                end = i + 1;
+            }
+        }
+        List<Statement> kept = new ArrayList<Statement>();
+        for (int i = end - 1; i >= 0; i--)
+        {
+            Statement s = stmts.get(i).eliminateDeadCode(live);
+            if (!(s instanceof Block && ((Block) s).isEmpty()))
+            {
+                kept.add(s);
+            }
+        }
+        if (!live.isAnalyzing())
+        {
+            Collections.reverse(kept);
+            stmts = kept;
+        }
+        return this;
+    }
+
     /**
      * Compiles all statements in the block
      * @param e the Emitter to output the MIPS instructions
@@ -48,4 +142,66 @@ public class Block extends Statement
             stmt.compile(e);
         }
     }
+
+    /**
+     * Emits the bytecode of all statements in the block
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        for (Statement stmt: stmts)
+        {
+            stmt.compile(b);
+        }
+    }
+
+    /**
+     * Emits the JVM instructions of all statements in the block
+     * @param j the JvmEmitter for the method that contains the block
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        for (Statement stmt: stmts)
+        {
+            stmt.compile(j);
+        }
+    }
+
+    /**
+     * Simplifies all the statements in the Block and removes the ones that do nothing
+     * @return this Block
+     */
+    @Override
+    public Statement optimize()
+    {
+        List<Statement> optimized = new ArrayList<Statement>();
+        for (Statement stmt: stmts)
+        {
+            Statement s = stmt.optimize();
+            if (!(s instanceof Block && ((Block) s).isEmpty()))
+            {
+                optimized.add(s);
+            }
+        }
+        stmts = optimized;
+        return this;
+    }
+
+    /**
+     * Compiles the statements of the Block to one closure
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the Block
+     */
+    @Override
+    public StatementCode compile(ClosureCompiler c)
+    {
+        List<StatementCode> codes = new ArrayList<StatementCode>();
+        for (Statement stmt: stmts)
+        {
+            codes.add(stmt.compile(c));
+        }
+        return c.block(codes);
+    }
 }
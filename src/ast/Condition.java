@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The Condition class defines an expression that compares two expressions with a relative operator
@@ -38,6 +41,19 @@ public class Condition extends Expression
     {
         int value1 = exp1.eval(env);
         int value2 = exp2.eval(env);
+        if (compare(value1, value2)) return 1;
+        return 0;
+    }
+
+    /**
+     * Compares two values with the relative operator
+     * @param value1 the value of the first expression
+     * @param value2 the value of the second expression
+     * @return true if the comparison is true; otherwise,
+     * false
+     */
+    private boolean compare(int value1, int value2)
+    {
         boolean bool = true;
         if (relop.equals("="))
         {
@@ -53,7 +69,7 @@ public class Condition extends Expression
         }
         else if (relop.equals(">"))
         {
-            bool = (value1>=value2);
+            bool = (value1>value2);
         }
         else if (relop.equals("<="))
         {
@@ -63,9 +79,51 @@ public class Condition extends Expression
         {
             bool = (value1>=value2);
         }
+        return bool;
+    }
 
-        if (bool) return 1;
-        return 0;
+    /**
+     * Resolves the variables in both expressions
+     * @param scope the scope in which the condition appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        exp1.resolve(scope);
+        exp2.resolve(scope);
+    }
+
+    /**
+     * Checks to see if either expression calls a procedure
+     * @return true if either expression contains a procedure call; otherwise,
+     * false
+     */
+    @Override
+    public boolean hasCall()
+    {
+        return exp1.hasCall() || exp2.hasCall();
+    }
+
+    /**
+     * Checks to see if either expression may have an effect
+     * @return true if either expression may have an effect; otherwise,
+     * false
+     */
+    @Override
+    public boolean hasEffect()
+    {
+        return exp1.hasEffect() || exp2.hasEffect();
+    }
+
+    /**
+     * Records the variables read by both expressions as live
+     * @param live the variables that are live after the condition
+     */
+    @Override
+    public void addReads(Liveness live)
+    {
+        exp1.addReads(live);
+        exp2.addReads(live);
     }
 
     /**
@@ -78,37 +136,157 @@ public class Condition extends Expression
      */
     public void compile(Emitter e, String label)
     {
-        exp1.compile(e);
-        e.emitPush("$v0");
-        exp2.compile(e);
-        e.emitPop("$t0");
+        String reg1 = "$t0";
+        String reg2 = "$v0";
+        if (e.isRegisterAllocation())
+        {
+            String[] operands = compileOperands(e, exp1, exp2, 0);
+            reg1 = operands[0];
+            reg2 = operands[1];
+        }
+        else
+        {
+            exp1.compile(e);
+            e.emitPush("$v0");
+            exp2.compile(e);
+            e.emitPop("$t0");
+        }
 
+        String operands = " " + reg1 + " " + reg2 + " ";
         if (relop.equals("="))
         {
-            e.emit("bne $t0 $v0 " + label);
+            e.emit("bne" + operands + label);
         }
         else if (relop.equals("<>"))
         {
-            e.emit("beq $t0 $v0 " + label);
+            e.emit("beq" + operands + label);
         }
         else if (relop.equals("<"))
         {
-            e.emit("bge $t0 $v0 " + label);
+            e.emit("bge" + operands + label);
         }
         else if (relop.equals(">"))
         {
-            e.emit("ble $t0 $v0 " + label);
+            e.emit("ble" + operands + label);
         }
         else if (relop.equals("<="))
         {
-            e.emit("bgt $t0 $v0 " + label);
+            e.emit("bgt" + operands + label);
         }
         else if (relop.equals(">="))
         {
-            e.emit("blt $t0 $v0 " + label);
+            e.emit("blt" + operands + label);
         }
         e.emit("");
 
 
     }
+
+    /**
+     * Pushes both expressions and pushes 1 if the condition is true, 0 if it is false
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        exp1.compile(b);
+        exp2.compile(b);
+        b.emit(Opcode.compare(relop));
+    }
+
+    /**
+     * Pushes both expressions and jumps to the target label if the condition is false
+     * @param b the BytecodeEmitter that collects the instructions
+     * @param label the label to jump to if the condition is false
+     */
+    public void compile(BytecodeEmitter b, int label)
+    {
+        exp1.compile(b);
+        exp2.compile(b);
+        b.emitJump(Opcode.jumpUnless(relop), label);
+    }
+
+    /**
+     * Pushes both expressions and pushes 1 if the condition is true, 0 if it is false
+     * @param j the JvmEmitter for the method that contains the condition
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        exp1.compile(j);
+        exp2.compile(j);
+        j.emitCompare(relop);
+    }
+
+    /**
+     * Pushes both expressions and jumps to the target label if the condition is false
+     * @param j the JvmEmitter for the method that contains the condition
+     * @param label the label to jump to if the condition is false
+     */
+    public void compile(JvmEmitter j, int label)
+    {
+        exp1.compile(j);
+        exp2.compile(j);
+        j.emitJumpUnless(relop, label);
+    }
+
+    /**
+     * Simplifies both expressions of the condition
+     * @return this Condition
+     */
+    @Override
+    public Condition optimize()
+    {
+        exp1 = exp1.optimize();
+        exp2 = exp2.optimize();
+        return this;
+    }
+
+    /**
+     * Checks to see if both expressions of the condition are numbers,
+     * so that the condition has the same value every time it is evaluated
+     * @return true if the condition is constant; otherwise,
+     * false
+     */
+    public boolean isConstant()
+    {
+        return exp1 instanceof Number && exp2 instanceof Number;
+    }
+
+    /**
+     * Gets the value of a constant condition
+     * @precondition the condition is constant
+     * @return true if the condition is always true, false if it is always false
+     */
+    public boolean isAlwaysTrue()
+    {
+        return compare(((Number) exp1).getValue(), ((Number) exp2).getValue());
+    }
+
+    /**
+     * Compiles the condition to a closure that gives 1 or 0
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the condition
+     */
+    @Override
+    public ExpressionCode compile(ClosureCompiler c)
+    {
+        ConditionCode code = compileCondition(c);
+        return env -> code.test(env) ? 1 : 0;
+    }
+
+    /**
+     * Compiles the condition to a closure for its relative operator that gives a boolean,
+     * using a closure with a constant operand if the second expression is a number
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the condition
+     */
+    public ConditionCode compileCondition(ClosureCompiler c)
+    {
+        if (exp2 instanceof Number)
+        {
+            return c.compare(relop, exp1.compile(c), ((Number) exp2).getValue());
+        }
+        return c.compare(relop, exp1.compile(c), exp2.compile(c));
+    }
 }
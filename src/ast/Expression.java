@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import environment.*;
 import emitter.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The abstract Expression class defines an expression that evaluates to an integer
@@ -17,6 +20,30 @@ public abstract class Expression
      */
     public abstract int eval(Environment env);
 
+    /**
+     * Assigns a frame slot to every variable used by the expression
+     * @param scope the scope in which the expression appears
+     */
+    public abstract void resolve(Scope scope);
+
+    /**
+     * Folds constant operations and removes identities such as x+0 and x*1
+     * @return the simplified expression, which may be this expression
+     */
+    public abstract Expression optimize();
+
+    /**
+     * Emits bytecode instructions that push the value of the expression
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    public abstract void compile(BytecodeEmitter b);
+
+    /**
+     * Emits JVM instructions that push the value of the expression
+     * @param j the JvmEmitter for the method that contains the expression
+     */
+    public abstract void compile(JvmEmitter j);
+
     /**
      * Emits a sequence of MIPS instructions for the corresponding AST component
      * @param e the Emitter to output the MIPS instructions
@@ -25,4 +52,106 @@ public abstract class Expression
     {
         throw new RuntimeException("");
     }
+
+    /**
+     * Gets the number of registers needed to evaluate the expression without
+     * using the stack, which is the Sethi-Ullman number of the expression
+     * @return the number of registers needed
+     */
+    public int registerNeed()
+    {
+        return 1;
+    }
+
+    /**
+     * Checks to see if evaluating the expression calls a procedure, which may change
+     * variables, so that it must be evaluated in the order it is written
+     * @return true if the expression contains a procedure call; otherwise,
+     * false
+     */
+    public boolean hasCall()
+    {
+        return false;
+    }
+
+    /**
+     * Checks to see if evaluating the expression may do something other than compute its value,
+     * by calling a procedure or dividing by zero, so that it must be evaluated even if its
+     * value is never used
+     * @return true if the expression may have an effect; otherwise,
+     * false
+     */
+    public boolean hasEffect()
+    {
+        return hasCall();
+    }
+
+    /**
+     * Records the variables read by the expression and the procedures it calls as live
+     * @param live the variables that are live after the expression is evaluated
+     */
+    public void addReads(Liveness live)
+    {
+    }
+
+    /**
+     * Emits MIPS instructions that evaluate the expression into an allocatable register,
+     * using only that register and the ones after it
+     * @param e the Emitter to output the MIPS instructions
+     * @param reg the index of the register that holds the result
+     */
+    public void compile(Emitter e, int reg)
+    {
+        compile(e);
+        e.emit("move " + e.register(reg) + " $v0\n");
+    }
+
+    /**
+     * Evaluates the two operands of a binary operation or a comparison into registers.
+     * The operand that needs more registers is evaluated first so that the other operand
+     * can reuse its registers, unless either operand calls a procedure, in which case the
+     * left operand is always evaluated first. If the other operand does not fit in the remaining registers,
+     * the first value is pushed onto the stack and popped into $v1 afterwards
+     * @param e the Emitter to output the MIPS instructions
+     * @param exp1 the left operand
+     * @param exp2 the right operand
+     * @param reg the index of the first register that may be used
+     * @return the names of the registers holding the left and the right operand
+     */
+    protected static String[] compileOperands(Emitter e, Expression exp1, Expression exp2, int reg)
+    {
+        boolean leftFirst = exp1.registerNeed() >= exp2.registerNeed()
+                || exp1.hasCall() || exp2.hasCall();
+        Expression first = leftFirst ? exp1 : exp2;
+        Expression second = leftFirst ? exp2 : exp1;
+        String firstReg;
+        String secondReg;
+        first.compile(e, reg);
+        if (second.registerNeed() < e.registerCount() - reg)
+        {
+            second.compile(e, reg + 1);
+            firstReg = e.register(reg);
+            secondReg = e.register(reg + 1);
+        }
+        else
+        {
+            e.emitPush(e.register(reg));
+            second.compile(e, reg);
+            e.emitPop("$v1");
+            firstReg = "$v1";
+            secondReg = e.register(reg);
+        }
+        if (leftFirst)
+        {
+            return new String[] {firstReg, secondReg};
+        }
+        return new String[] {secondReg, firstReg};
+    }
+
+    /**
+     * Compiles the expression to a closure
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure that evaluates the expression
+     */
+    public abstract ExpressionCode compile(ClosureCompiler c);
 }
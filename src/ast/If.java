@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The If class defines a statement that is executed if a condition evaluates to true
@@ -37,6 +40,56 @@ public class If extends Statement
         }
     }
 
+    /**
+     * Resolves the condition and the statement of the if statement
+     * @param scope the scope in which the if statement appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        cond.resolve(scope);
+        stmt.resolve(scope);
+    }
+
+    /**
+     * Marks the tail calls in the statement of the if statement,
+     * which is the last thing the procedure does if the if statement is
+     * @param proc the procedure whose body contains the if statement
+     * @return this If
+     */
+    @Override
+    public Statement markTailCalls(ProcedureDeclaration proc)
+    {
+        stmt = stmt.markTailCalls(proc);
+        return this;
+    }
+
+    /**
+     * Removes the dead code in the statement of the if statement. The variables that are live
+     * before it are the ones live after it, since the statement may not run, together with
+     * the ones live before the statement and the ones read by the condition.
+     * The if statement is removed if its statement is empty and the condition has no effect
+     * @param live the variables that are live after the if statement
+     * @return an empty Block if the if statement does nothing, otherwise this If
+     */
+    @Override
+    public Statement eliminateDeadCode(Liveness live)
+    {
+        Liveness after = live.copy();
+        Statement body = stmt.eliminateDeadCode(live);
+        live.addAll(after);
+        if (!live.isAnalyzing())
+        {
+            stmt = body;
+            if (stmt instanceof Block && ((Block) stmt).isEmpty() && !cond.hasEffect())
+            {
+                return new Block();
+            }
+        }
+        cond.addReads(live);
+        return this;
+    }
+
     /**
      * Compiles the condition of the if statement, the statement in the if, and the end label
      * @param e the Emitter to output the MIPS instructions
@@ -44,10 +97,76 @@ public class If extends Statement
     @Override
     public void compile(Emitter e)
     {
-        String label = "endif"+e.nextLabelID();
+        String label = e.label("endif", e.nextLabelID());
         cond.compile(e, label);
         stmt.compile(e);
         e.emit("");
         e.emit(label + ":");
     }
+
+    /**
+     * Emits the condition, which skips the statement if it is false, and the statement
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        int label = b.newLabel();
+        cond.compile(b, label);
+        stmt.compile(b);
+        b.placeLabel(label);
+    }
+
+    /**
+     * Emits the condition, which skips the statement if it is false, and the statement
+     * @param j the JvmEmitter for the method that contains the if statement
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        int label = j.newLabel();
+        cond.compile(j, label);
+        stmt.compile(j);
+        j.placeLabel(label);
+    }
+
+    /**
+     * Simplifies the condition and the statement. If the condition is constant,
+     * the if statement is replaced by its statement or removed
+     * @return the simplified statement
+     */
+    @Override
+    public Statement optimize()
+    {
+        cond = cond.optimize();
+        if (cond.isConstant())
+        {
+            if (cond.isAlwaysTrue())
+            {
+                return stmt.optimize();
+            }
+            return new Block();
+        }
+        stmt = stmt.optimize();
+        return this;
+    }
+
+    /**
+     * Compiles the if statement to a closure
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the if statement
+     */
+    @Override
+    public StatementCode compile(ClosureCompiler c)
+    {
+        ConditionCode test = cond.compileCondition(c);
+        StatementCode body = stmt.compile(c);
+        return env ->
+        {
+            if (test.test(env))
+            {
+                body.exec(env);
+            }
+        };
+    }
 }
@@ -0,0 +1,196 @@
+package ast;
+
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * The Liveness class holds the variables that are live at a point of a program: the ones whose
+ * value may still be read before they are assigned again. It is used to remove dead code,
+ * going backwards through the statements, so that it starts with the variables that are live
+ * after a statement and is changed into the ones that are live before it.
+ *
+ * The global variables and the local variables of the procedure being analyzed are kept by
+ * slot. Calling a procedure makes every global variable live, since the procedure may read any
+ * of them. While the body of a loop is analyzed again and again until the variables that are
+ * live at its start stop changing, the Liveness is analyzing, and the statements must not
+ * be changed or recorded as used.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class Liveness
+{
+    private BitSet globals;
+    private BitSet locals;
+    private int globalCount;
+    private boolean analyzing;
+    private BitSet usedGlobals;
+    private Set<String> called;
+
+    /**
+     * Constructor for a Liveness in which no variable is live
+     * @param globalCount the number of global variables of the program
+     * @param usedGlobals the slots of the global variables that are read or assigned by the
+     *                    code that is kept, which are added to
+     * @param called the names of the procedures called by the code that is kept,
+     *               which are added to
+     */
+    public Liveness(int globalCount, BitSet usedGlobals, Set<String> called)
+    {
+        globals = new BitSet();
+        locals = new BitSet();
+        this.globalCount = globalCount;
+        this.usedGlobals = usedGlobals;
+        this.called = called;
+    }
+
+    /**
+     * Creates a copy of the Liveness, which shares the used global variables
+     * and the called procedures
+     * @return the copy
+     */
+    public Liveness copy()
+    {
+        Liveness copy = new Liveness(globalCount, usedGlobals, called);
+        copy.set(this);
+        copy.analyzing = analyzing;
+        return copy;
+    }
+
+    /**
+     * Makes the same variables live as in another Liveness
+     * @param other the other Liveness
+     */
+    public void set(Liveness other)
+    {
+        globals = (BitSet) other.globals.clone();
+        locals = (BitSet) other.locals.clone();
+    }
+
+    /**
+     * Makes the variables that are live in another Liveness live as well,
+     * which joins two paths through the program
+     * @param other the other Liveness
+     */
+    public void addAll(Liveness other)
+    {
+        globals.or(other.globals);
+        locals.or(other.locals);
+    }
+
+    /**
+     * Checks to see if the same variables are live as in another Liveness
+     * @param other the other Liveness
+     * @return true if the live variables are the same; otherwise,
+     * false
+     */
+    public boolean isSameAs(Liveness other)
+    {
+        return globals.equals(other.globals) && locals.equals(other.locals);
+    }
+
+    /**
+     * Checks to see if the statements are only being analyzed
+     * @return true if the statements must not be changed; otherwise,
+     * false
+     */
+    public boolean isAnalyzing()
+    {
+        return analyzing;
+    }
+
+    /**
+     * Sets whether the statements are only being analyzed
+     * @param analyzing true if the statements must not be changed, false to remove dead code
+     */
+    public void setAnalyzing(boolean analyzing)
+    {
+        this.analyzing = analyzing;
+    }
+
+    /**
+     * Checks to see if a variable is live
+     * @param local true for a local variable, false for a global variable
+     * @param slot the slot of the variable
+     * @return true if the value of the variable may be read; otherwise,
+     * false
+     */
+    public boolean isLive(boolean local, int slot)
+    {
+        return local ? locals.get(slot) : globals.get(slot);
+    }
+
+    /**
+     * Records that a variable is read, which makes it live
+     * @param local true for a local variable, false for a global variable
+     * @param slot the slot of the variable
+     */
+    public void read(boolean local, int slot)
+    {
+        if (local)
+        {
+            locals.set(slot);
+            return;
+        }
+        globals.set(slot);
+        use(slot);
+    }
+
+    /**
+     * Records that a variable is assigned, so that it is not live before the assignment
+     * @param local true for a local variable, false for a global variable
+     * @param slot the slot of the variable
+     */
+    public void assign(boolean local, int slot)
+    {
+        if (local)
+        {
+            locals.clear(slot);
+            return;
+        }
+        globals.clear(slot);
+        use(slot);
+    }
+
+    /**
+     * Records that a global variable is used by code that is kept
+     * @param slot the slot of the global variable
+     */
+    private void use(int slot)
+    {
+        if (!analyzing)
+        {
+            usedGlobals.set(slot);
+        }
+    }
+
+    /**
+     * Records that a procedure is called, which makes every global variable live
+     * @param name the name of the procedure
+     */
+    public void call(String name)
+    {
+        globals.set(0, globalCount);
+        if (!analyzing)
+        {
+            called.add(name);
+        }
+    }
+
+    /**
+     * Makes the local variables in the first slots of the frame live
+     * @param frameSize the number of slots of the frame
+     */
+    public void readLocals(int frameSize)
+    {
+        locals.set(0, frameSize);
+    }
+
+    /**
+     * Makes every global variable live
+     */
+    public void readGlobals()
+    {
+        globals.set(0, globalCount);
+    }
+}
@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import emitter.*;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The Number class contains an integer value
@@ -21,6 +24,15 @@ public class Number extends Expression
         this.value = value;
     }
 
+    /**
+     * Gets the value of the number
+     * @return the value of the number
+     */
+    public int getValue()
+    {
+        return value;
+    }
+
     /**
      * Gives the value of the Number object
      * @param env the environment that contains the variables and procedures used during evaluation
@@ -32,6 +44,15 @@ public class Number extends Expression
         return value;
     }
 
+    /**
+     * A Number does not use any variables, so there is nothing to resolve
+     * @param scope the scope in which the number appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+    }
+
     /**
      * Sets $v0 to the number
      * @param e the Emitter to output the MIPS instructions
@@ -42,4 +63,56 @@ public class Number extends Expression
         e.emit("# Sets $v0 to " + value);
         e.emit("li $v0 " + value + "\n");
     }
+
+    /**
+     * Sets a register to the number
+     * @param e the Emitter to output the MIPS instructions
+     * @param reg the index of the register that holds the result
+     */
+    @Override
+    public void compile(Emitter e, int reg)
+    {
+        e.emit("li " + e.register(reg) + " " + value);
+    }
+
+    /**
+     * Pushes the number
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        b.emit(Opcode.PUSH, value);
+    }
+
+    /**
+     * Pushes the number
+     * @param j the JvmEmitter for the method that contains the number
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        j.emitConstant(value);
+    }
+
+    /**
+     * A Number is already constant
+     * @return this Number
+     */
+    @Override
+    public Expression optimize()
+    {
+        return this;
+    }
+
+    /**
+     * Compiles the number to a closure that gives its value
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the number
+     */
+    @Override
+    public ExpressionCode compile(ClosureCompiler c)
+    {
+        return c.constant(value);
+    }
 }
@@ -1,8 +1,14 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.Environment;
+import environment.Frame;
+import environment.Profiler;
+import environment.Scope;
 import java.util.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The ProcedureCall class describes an expression that executes a procedure
@@ -15,6 +21,8 @@ public class ProcedureCall extends Expression
 {
     private String name;
     private List<Expression> args;
+    private ProcedureDeclaration dec;
+    private String profileName;
 
     /**
      * Constructor for objects of class ProcedureCall
@@ -27,27 +35,273 @@ public class ProcedureCall extends Expression
         this.args = args;
     }
 
+    /**
+     * Gets the name of the procedure being called
+     * @return the name of the procedure
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Gets the arguments of the procedure call
+     * @return the list of arguments
+     */
+    public List<Expression> getArgs()
+    {
+        return args;
+    }
+
     /**
      * Evaluates a procedure call by getting the corresponding procedure,
      * evaluating the arguments of the procedure call, and executing the body of the procedure.
-     * Creates a variable in the local environment with the name of the procedure
+     * The procedure is the one bound while resolving, and is only looked up in the environment
+     * if the call was not bound.
+     * Gets a local frame from the frame pool whose slot 0 is the variable with the name of
+     * the procedure and whose following slots are the parameters, and returns it to the pool
+     * after the procedure returns. If profiling is on, the call is recorded once the arguments
+     * have been evaluated
      * @param env the environment that contains the variables and procedures used during evaluation
      * @return the value of the variable associated with the procedure call
      */
     @Override
     public int eval(Environment env)
     {
-        Environment loc = new Environment(env);
-        loc.setVariable(name,0);
-        ProcedureDeclaration dec = loc.getProcedure(name);
-        List<String> params = dec.getParams();
-        int len = params.size();
+        ProcedureDeclaration dec = this.dec;
+        if (dec == null)
+        {
+            dec = env.getProcedure(name);
+        }
+        Environment local = env.enter(dec.getFrameSize());
+        Frame frame = local.getLocals();
+        int len = dec.getParams().size();
         for (int i=0; i<len; i++)
         {
-            loc.declareVariable(params.get(i), args.get(i).eval(env));
+            frame.set(i + 1, args.get(i).eval(env));
+        }
+        Profiler profiler = env.getProfiler();
+        int value = profiler == null ? dec.invoke(local) : profile(dec, local, profiler);
+        env.exit(local);
+        return value;
+    }
+
+    /**
+     * Runs the body of the procedure and records the call in a Profiler
+     * @param dec the procedure being called
+     * @param local the local environment of the call, whose frame holds the arguments
+     * @param profiler the Profiler of the environment
+     * @return the value returned by the procedure
+     */
+    private int profile(ProcedureDeclaration dec, Environment local, Profiler profiler)
+    {
+        if (profileName == null)
+        {
+            profileName = "CALL " + name;
+        }
+        long start = profiler.enter(name, profileName);
+        int value = dec.invoke(local);
+        profiler.exit(profileName, start);
+        return value;
+    }
+
+    /**
+     * Binds the procedure call to the declaration of the procedure and resolves its arguments
+     * @param scope the scope in which the procedure call appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        dec = scope.getProcedure(name);
+        for (Expression arg: args)
+        {
+            arg.resolve(scope);
+        }
+    }
+
+    /**
+     * Calls the procedure, leaving its return value in $v0
+     * @param e the Emitter to output the MIPS instructions
+     */
+    @Override
+    public void compile(Emitter e)
+    {
+        compileCall(e, 0);
+    }
+
+    /**
+     * Calls the procedure and moves its return value into a register.
+     * The registers before it hold values of the enclosing expression,
+     * so they are saved on the stack during the call
+     * @param e the Emitter to output the MIPS instructions
+     * @param reg the index of the register that holds the result
+     */
+    @Override
+    public void compile(Emitter e, int reg)
+    {
+        compileCall(e, reg);
+        e.emit("move " + e.register(reg) + " $v0\n");
+    }
+
+    /**
+     * Emits a call to the procedure. The arguments are evaluated from left to right and
+     * pushed onto the stack, the first four are also loaded into $a0-$a3, and the procedure
+     * is called with jal. The caller pops the arguments after the call.
+     * All allocatable registers may be changed by the procedure, so the caller saves the ones
+     * that are in use. As in eval, only as many arguments as the procedure has parameters
+     * are evaluated
+     * @param e the Emitter to output the MIPS instructions
+     * @param live the number of allocatable registers in use, starting at $t0
+     */
+    private void compileCall(Emitter e, int live)
+    {
+        int paramCount = e.getParamCount(name);
+        if (args.size() < paramCount)
+        {
+            throw new RuntimeException("Procedure " + name + " expects " + paramCount
+                    + " arguments but was called with " + args.size());
+        }
+        e.emit("# Calls " + name);
+        for (int i = 0; i < live; i++)
+        {
+            e.emitPush(e.register(i));
+        }
+        for (int i = 0; i < paramCount; i++)
+        {
+            if (e.isRegisterAllocation())
+            {
+                args.get(i).compile(e, 0);
+                e.emitPush(e.register(0));
+            }
+            else
+            {
+                args.get(i).compile(e);
+                e.emitPush("$v0");
+            }
+        }
+        for (int i = 0; i < paramCount && i < e.argumentCount(); i++)
+        {
+            e.emit("lw " + e.argument(i) + " " + 4 * (paramCount - 1 - i) + "($sp)");
+        }
+        e.emit("jal " + e.procedureLabel(name));
+        if (paramCount > 0)
+        {
+            e.emit("addu $sp $sp " + 4 * paramCount + "\n");
+        }
+        for (int i = live - 1; i >= 0; i--)
+        {
+            e.emitPop(e.register(i));
+        }
+    }
+
+    /**
+     * A procedure call always calls a procedure
+     * @return true
+     */
+    @Override
+    public boolean hasCall()
+    {
+        return true;
+    }
+
+    /**
+     * Records the call of the procedure, which may read any global variable,
+     * and the variables read by the arguments as live
+     * @param live the variables that are live after the procedure returns
+     */
+    @Override
+    public void addReads(Liveness live)
+    {
+        live.call(name);
+        for (Expression arg: args)
+        {
+            arg.addReads(live);
+        }
+    }
+
+    /**
+     * Pushes the arguments and calls the procedure, which pushes its return value.
+     * As in eval, only as many arguments as the procedure has parameters are evaluated
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        int paramCount = b.getParamCount(name);
+        if (args.size() < paramCount)
+        {
+            throw new RuntimeException("Procedure " + name + " expects " + paramCount
+                    + " arguments but was called with " + args.size());
+        }
+        for (int i = 0; i < paramCount; i++)
+        {
+            args.get(i).compile(b);
         }
-        dec.getStatement().exec(loc);
-        return loc.getVariable(name);
+        b.emitCall(name, paramCount);
     }
 
+    /**
+     * Pushes the arguments and calls the static method of the procedure.
+     * As in eval, only as many arguments as the procedure has parameters are evaluated
+     * @param j the JvmEmitter for the method that contains the procedure call
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        int paramCount = j.getClassBuilder().getParamCount(name);
+        if (args.size() < paramCount)
+        {
+            throw new RuntimeException("Procedure " + name + " expects " + paramCount
+                    + " arguments but was called with " + args.size());
+        }
+        for (int i = 0; i < paramCount; i++)
+        {
+            args.get(i).compile(j);
+        }
+        j.emitCall(name, paramCount);
+    }
+
+    /**
+     * Simplifies the arguments of the procedure call
+     * @return this ProcedureCall
+     */
+    @Override
+    public Expression optimize()
+    {
+        for (int i = 0; i < args.size(); i++)
+        {
+            args.set(i, args.get(i).optimize());
+        }
+        return this;
+    }
+
+    /**
+     * Compiles the procedure call to a closure that evaluates the arguments into a frame
+     * from the frame pool and invokes the compiled procedure
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the procedure call
+     */
+    @Override
+    public ExpressionCode compile(ClosureCompiler c)
+    {
+        ProcedureCode proc = c.getProcedure(name);
+        int frameSize = proc.getFrameSize();
+        ExpressionCode[] codes = new ExpressionCode[proc.getParamCount()];
+        for (int i = 0; i < codes.length; i++)
+        {
+            codes[i] = args.get(i).compile(c);
+        }
+        return env ->
+        {
+            Environment local = env.enter(frameSize);
+            Frame frame = local.getLocals();
+            for (int i = 0; i < codes.length; i++)
+            {
+                frame.set(i + 1, codes[i].eval(env));
+            }
+            int value = proc.invoke(local);
+            env.exit(local);
+            return value;
+        };
+    }
 }
@@ -1,20 +1,31 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.Environment;
+import environment.Frame;
+import environment.Scope;
 import java.util.*;
+import jvm.*;
+import vm.*;
 
 /**
  * The ProcedureDeclaration stores a procedure that is declared
  * in the beginning of the program into the environment.
  * @author Gabriel Chai
- * @version April 27, 2020
+ * @version October 18, 2026
  */
 public class ProcedureDeclaration extends Statement
 {
     private String name;
     private Statement stmt;
     private List<String> params;
+    private int frameSize;
+    private String accumulatorOp;
+    private int accumulatorSlot;
+    private int bodyLabel;
+    private boolean tailCall;
+    private String source;
 
     /**
      * Constructor for objects of class ProcedureDeclaration
@@ -27,6 +38,35 @@ public class ProcedureDeclaration extends Statement
         this.name = name;
         this.params = params;
         this.stmt = stmt;
+        accumulatorSlot = -1;
+    }
+
+    /**
+     * Gets the name of the procedure
+     * @return the name of the procedure
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Sets the tokens of the procedure, from PROCEDURE to the end of its body,
+     * which identify it when it is compiled as a unit on its own
+     * @param source the text of the tokens, separated by spaces
+     */
+    public void setSource(String source)
+    {
+        this.source = source;
+    }
+
+    /**
+     * Gets the tokens of the procedure
+     * @return the text of the tokens, or null if the parser did not record them
+     */
+    public String getSource()
+    {
+        return source;
     }
 
     /**
@@ -47,6 +87,127 @@ public class ProcedureDeclaration extends Statement
         return stmt;
     }
 
+    /**
+     * Gets the number of slots needed for a frame of the procedure,
+     * which is the procedure name, the parameters and the local variables
+     * @return the size of the frame of the procedure
+     */
+    public int getFrameSize()
+    {
+        return frameSize;
+    }
+
+    /**
+     * Asks to combine the values of tail calls with an operator. A procedure has at most one
+     * accumulator, so only the first operator that is asked for is used
+     * @param op the operator, + or *
+     * @return true if the tail calls of the procedure are combined with the operator; otherwise,
+     * false
+     */
+    public boolean useAccumulator(String op)
+    {
+        if (accumulatorOp == null)
+        {
+            accumulatorOp = op;
+        }
+        return accumulatorOp.equals(op);
+    }
+
+    /**
+     * Records that the body of the procedure ends with a tail call, which jumps to the start
+     * of the body
+     */
+    public void addTailCall()
+    {
+        tailCall = true;
+    }
+
+    /**
+     * Checks to see if the body of the procedure ends with a tail call
+     * @return true if a TailCall jumps to the start of the body; otherwise,
+     * false
+     */
+    public boolean hasTailCall()
+    {
+        return tailCall;
+    }
+
+    /**
+     * Gets the operator that the tail calls of the procedure are combined with
+     * @return + or *, or null if the procedure has no accumulator
+     */
+    public String getAccumulatorOp()
+    {
+        return accumulatorOp;
+    }
+
+    /**
+     * Gets the slot of the accumulator, which comes after the local variables
+     * @return the slot of the accumulator, or -1 if the procedure has no accumulator
+     */
+    public int getAccumulatorSlot()
+    {
+        return accumulatorSlot;
+    }
+
+    /**
+     * Gets the label at the start of the body of the procedure, after the local variables are
+     * set up, which the tail calls jump to
+     * @return the id of the label
+     */
+    public int getBodyLabel()
+    {
+        return bodyLabel;
+    }
+
+    /**
+     * Gets the MIPS label at the start of the body of the procedure, which the tail calls
+     * jump to
+     * @param e the Emitter to output the MIPS instructions
+     * @return the label
+     */
+    public String bodyLabel(Emitter e)
+    {
+        return "body" + e.procedureLabel(name);
+    }
+
+    /**
+     * Gets the starting value of the accumulator, which does not change the return value
+     * @return 1 if the tail calls are multiplied, otherwise 0
+     */
+    private int accumulatorIdentity()
+    {
+        return "*".equals(accumulatorOp) ? 1 : 0;
+    }
+
+    /**
+     * Executes the body of the procedure in an environment whose parameters have been set.
+     * When the body ends with a tail call, the TailCall has already put the new arguments
+     * into the frame, so the body is run again instead of calling the procedure
+     * @param local the local environment of the procedure, whose frame holds the arguments
+     * @return the value of the variable with the name of the procedure,
+     * combined with the accumulator if there is one
+     */
+    public int invoke(Environment local)
+    {
+        Frame frame = local.getLocals();
+        if (accumulatorOp != null)
+        {
+            frame.set(accumulatorSlot, accumulatorIdentity());
+        }
+        do
+        {
+            frame.setTailCall(false);
+            stmt.exec(local);
+        }
+        while (frame.isTailCall());
+        if (accumulatorOp == null)
+        {
+            return frame.get(0);
+        }
+        return TailCall.combine(accumulatorOp, frame.get(accumulatorSlot), frame.get(0));
+    }
+
     /**
      * Stores the procedure into the environment
      * @param env the environment containing the variables and procedures used during execution
@@ -57,4 +218,234 @@ public class ProcedureDeclaration extends Statement
         env.setProcedure(name, this);
     }
 
+    /**
+     * Creates the local scope of the procedure and resolves the body of the procedure.
+     * Slot 0 holds the return value, which has the name of the procedure,
+     * followed by the parameters and then any other local variables.
+     * Calls of the procedure to itself at the end of its body are then replaced with TailCalls,
+     * and if they are added or multiplied, a slot for the accumulator follows the local variables
+     * @param scope the global scope of the program
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        Scope locals = new Scope(scope);
+        locals.declare(name);
+        for (String param: params)
+        {
+            locals.declare(param);
+        }
+        stmt.resolve(locals);
+        stmt = stmt.markTailCalls(this);
+        frameSize = locals.size();
+        if (accumulatorOp != null)
+        {
+            accumulatorSlot = frameSize;
+            frameSize++;
+        }
+    }
+
+    /**
+     * Declares the procedure so that calls to it can be compiled before its body is emitted
+     * @param e the Emitter to output the MIPS instructions
+     */
+    public void declare(Emitter e)
+    {
+        e.declareProcedure(name, params.size());
+    }
+
+    /**
+     * Emits the procedure as a MIPS subroutine. The prologue saves $ra and $fp, points $fp
+     * at the new frame and copies the parameters into it, from $a0-$a3 and then from the
+     * arguments the caller pushed. The return value and the other local variables start at 0.
+     * Tail calls jump back to the label after the prologue, which is only emitted if there are any.
+     * The epilogue loads the variable with the name of the procedure into $v0,
+     * combines it with the accumulator if there is one, restores $fp and $ra and returns
+     * @param e the Emitter to output the MIPS instructions
+     */
+    @Override
+    public void compile(Emitter e)
+    {
+        int paramCount = params.size();
+        e.emit("# Procedure " + name);
+        e.emit(e.procedureLabel(name) + ":");
+        e.emitPush("$ra");
+        e.emitPush("$fp");
+        e.emit("move $fp $sp");
+        e.emit("subu $sp $sp " + 4 * frameSize + "\n");
+        for (int slot = 0; slot < frameSize; slot++)
+        {
+            if (slot == accumulatorSlot && accumulatorIdentity() != 0)
+            {
+                e.emit("li $t0 " + accumulatorIdentity());
+                e.emit("sw $t0 " + e.frameAddress(slot));
+            }
+            else if (slot == 0 || slot > paramCount)
+            {
+                e.emit("sw $zero " + e.frameAddress(slot));
+            }
+            else if (slot <= e.argumentCount())
+            {
+                e.emit("sw " + e.argument(slot - 1) + " " + e.frameAddress(slot));
+            }
+            else
+            {
+                e.emit("lw $t0 " + (8 + 4 * (paramCount - slot)) + "($fp)");
+                e.emit("sw $t0 " + e.frameAddress(slot));
+            }
+        }
+        e.emit("");
+        if (tailCall)
+        {
+            e.emit(bodyLabel(e) + ":");
+        }
+        stmt.compile(e);
+        e.emit("# Returns " + name);
+        e.emit("lw $v0 " + e.frameAddress(0));
+        if (accumulatorOp != null)
+        {
+            e.emit("lw $t0 " + e.frameAddress(accumulatorSlot));
+            e.emit((accumulatorOp.equals("*") ? "mulu" : "addu") + " $v0 $v0 $t0");
+        }
+        e.emit("move $sp $fp");
+        e.emitPop("$fp");
+        e.emitPop("$ra");
+        e.emit("jr $ra\n");
+    }
+
+    /**
+     * Adds the procedure to the procedure table so that it can be called
+     * before its body is emitted
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    public void declare(BytecodeEmitter b)
+    {
+        b.declareProcedure(name, params.size(), frameSize);
+    }
+
+    /**
+     * Declares the static method of the procedure so that it can be called
+     * before the method is built
+     * @param c the ClassBuilder of the class of the program
+     */
+    public void declare(ClassBuilder c)
+    {
+        c.declareMethod(name, params.size());
+    }
+
+    /**
+     * Emits the body of the procedure followed by a return. If the procedure has an accumulator,
+     * it is set before the body and combined into the return value after it
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        b.beginProcedure(name);
+        if (accumulatorOp != null)
+        {
+            b.emit(Opcode.PUSH, accumulatorIdentity());
+            b.emit(Opcode.STORE_LOCAL, accumulatorSlot);
+        }
+        bodyLabel = b.newLabel();
+        b.placeLabel(bodyLabel);
+        stmt.compile(b);
+        if (accumulatorOp != null)
+        {
+            b.emit(Opcode.LOAD_LOCAL, 0);
+            b.emit(Opcode.LOAD_LOCAL, accumulatorSlot);
+            b.emit(Opcode.arithmetic(accumulatorOp));
+            b.emit(Opcode.STORE_LOCAL, 0);
+        }
+        b.emit(Opcode.RETURN);
+    }
+
+    /**
+     * Compiles the procedure to a static method of the class of the program.
+     * The method sets the local variables to 0, executes the body of the procedure
+     * and returns the value of the variable with the name of the procedure,
+     * combined with the accumulator if there is one
+     * @param j the JvmEmitter for the method that declares the procedure
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        JvmEmitter m = j.newMethod(params.size(), frameSize);
+        for (int slot = 0; slot < frameSize; slot++)
+        {
+            if (slot == accumulatorSlot)
+            {
+                m.emitConstant(accumulatorIdentity());
+                m.emitStoreLocal(slot);
+            }
+            else if (slot == 0 || slot > params.size())
+            {
+                m.emitConstant(0);
+                m.emitStoreLocal(slot);
+            }
+        }
+        bodyLabel = m.newLabel();
+        m.placeLabel(bodyLabel);
+        stmt.compile(m);
+        m.emitLoadLocal(0);
+        if (accumulatorOp != null)
+        {
+            m.emitLoadLocal(accumulatorSlot);
+            m.emitArithmetic(accumulatorOp);
+        }
+        m.emitReturn(true);
+        j.getClassBuilder().addMethod(name, ClassBuilder.descriptor(params.size()), m);
+    }
+
+    /**
+     * Simplifies the body of the procedure
+     * @return this ProcedureDeclaration
+     */
+    @Override
+    public Statement optimize()
+    {
+        stmt = stmt.optimize();
+        return this;
+    }
+
+    /**
+     * Removes the dead code in the body of the procedure. When the procedure returns, its
+     * return value, its accumulator and every global variable are live
+     * @param live the Liveness in which no variable is live yet, for the frame of the procedure
+     * @return this ProcedureDeclaration
+     */
+    @Override
+    public Statement eliminateDeadCode(Liveness live)
+    {
+        live.readGlobals();
+        live.read(true, 0);
+        if (accumulatorSlot >= 0)
+        {
+            live.read(true, accumulatorSlot);
+        }
+        stmt = stmt.eliminateDeadCode(live);
+        return this;
+    }
+
+    /**
+     * Declares the procedure so that calls to it can be compiled before its body
+     * @param c the ClosureCompiler that creates the closures
+     */
+    public void declare(ClosureCompiler c)
+    {
+        c.declareProcedure(name,
+                new ProcedureCode(frameSize, params.size(), accumulatorOp, accumulatorSlot));
+    }
+
+    /**
+     * Compiles the body of the procedure and gives it to the declared procedure
+     * @param c the ClosureCompiler that creates the closures
+     * @return a closure that does nothing, since declaring a procedure does not run anything
+     */
+    @Override
+    public StatementCode compile(ClosureCompiler c)
+    {
+        c.getProcedure(name).setBody(stmt.compile(c));
+        return env -> { };
+    }
 }
@@ -1,22 +1,29 @@
 package ast;
 
+import closure.*;
 import environment.Environment;
+import environment.Scope;
 
 import java.util.*;
 
 import emitter.*;
+import jvm.*;
+import vm.*;
 
 /**
  * The Program class stores the variables, procedures and statement of a program and executes them.
  *
  * @author Gabriel Chai
- * @version May 1, 2020
+ * @version October 18, 2026
  */
 public class Program extends Statement
 {
-    private static List<ProcedureDeclaration> procedures;
-    private static List<String> variables;
-    private static Statement stmt;
+    private List<ProcedureDeclaration> procedures;
+    private List<String> variables;
+    private Statement stmt;
+    private Scope globals;
+    private BitSet usedGlobals;
+    private String source;
 
     /**
      * Constructor for object of class Program
@@ -32,16 +39,95 @@ public class Program extends Statement
     }
 
     /**
-     * Declares teh variables and executes the procedures and statement in the program
-     * @param env the environment containing the variables and procedures used during execution
+     * Gets the procedures of the program
+     * @return the list of procedures, in the order they are declared
      */
-    @Override
-    public void exec(Environment env)
+    public List<ProcedureDeclaration> getProcedures()
+    {
+        return procedures;
+    }
+
+    /**
+     * Gets the statement of the program, which is run after the procedures are declared
+     * @return the statement of the program
+     */
+    public Statement getStatement()
+    {
+        return stmt;
+    }
+
+    /**
+     * Gets the names of the global variables, which are known once the program is resolved
+     * @return the names of the global variables, ordered by slot
+     */
+    public List<String> getGlobalNames()
+    {
+        return globals.getNames();
+    }
+
+    /**
+     * Sets the tokens of the statement of the program, which identify it
+     * when it is compiled as a unit on its own
+     * @param source the text of the tokens, separated by spaces
+     */
+    public void setSource(String source)
+    {
+        this.source = source;
+    }
+
+    /**
+     * Gets the tokens of the statement of the program
+     * @return the text of the tokens, or null if the parser did not record them
+     */
+    public String getSource()
     {
+        return source;
+    }
+
+    /**
+     * Declares the procedures and the declared variables of the program in the global scope,
+     * so that statements can be resolved before the rest of the program
+     * @param scope the global scope of the program
+     */
+    public void declareGlobals(Scope scope)
+    {
+        globals = scope;
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            globals.declareProcedure(procedure);
+        }
         for (String variable: variables)
         {
-            env.declareVariable(variable, 0);
+            globals.declare(variable);
+        }
+    }
+
+    /**
+     * Assigns a frame slot to every variable in the program.
+     * The declared variables and the variables of the statement are global, and are resolved
+     * before the procedures so that a procedure can use a global variable before it is declared.
+     * The procedures are declared first so that every call is bound to its declaration
+     * @param scope the global scope of the program
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        declareGlobals(scope);
+        stmt.resolve(globals);
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.resolve(globals);
         }
+    }
+
+    /**
+     * Declares the variables and executes the procedures and statement in the program
+     * @param env the environment containing the variables and procedures used during execution
+     */
+    @Override
+    public void exec(Environment env)
+    {
+        env.allocateGlobals(globals.size());
         for (ProcedureDeclaration procedure: procedures)
         {
             procedure.exec(env);
@@ -55,21 +141,279 @@ public class Program extends Statement
      * @param output the name of the output file
      */
     public void compile (String output)
+    {
+        compile(output, false);
+    }
+
+    /**
+     * Uses an Emitter to write MIPS code for the program to a file
+     * Compiles the statement and emits the variables
+     * @param output the name of the output file
+     * @param registerAllocation true to evaluate expressions in registers,
+     *                           false to push every intermediate value onto the stack
+     */
+    public void compile (String output, boolean registerAllocation)
+    {
+        compile(output, registerAllocation, false);
+    }
+
+    /**
+     * Uses an Emitter to write MIPS code for the program to a file
+     * Compiles the statement and emits the variables
+     * @param output the name of the output file
+     * @param registerAllocation true to evaluate expressions in registers,
+     *                           false to push every intermediate value onto the stack
+     * @param release true to leave the comment lines out of the file
+     */
+    public void compile (String output, boolean registerAllocation, boolean release)
     {
         Emitter e = new Emitter(output);
+        e.setRegisterAllocation(registerAllocation);
+        e.setRelease(release);
+        compile(e);
+    }
+
+    /**
+     * Compiles the statement followed by the procedures, emits the global variables
+     * and closes the Emitter, using the options the Emitter has been given
+     * @param e the Emitter to output the MIPS instructions
+     */
+    @Override
+    public void compile (Emitter e)
+    {
+        declare(e);
+        compileMain(e);
+        compileProcedures(e);
+        compileData(e);
+        e.close();
+    }
+
+    /**
+     * Declares every procedure so that calls to them can be compiled
+     * @param e the Emitter to output the MIPS instructions
+     */
+    public void declare(Emitter e)
+    {
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.declare(e);
+        }
+    }
+
+    /**
+     * Emits the start of the text section and the statement of the program,
+     * followed by the system call that halts
+     * @param e the Emitter to output the MIPS instructions
+     */
+    public void compileMain(Emitter e)
+    {
+        compileStart(e);
+        stmt.compile(e);
+        compileHalt(e);
+    }
+
+    /**
+     * Emits the start of the text section, up to the label of the statement of the program
+     * @param e the Emitter to output the MIPS instructions
+     */
+    public void compileStart(Emitter e)
+    {
         e.emit("# @author Gabriel Chai");
         e.emit(".text");
         e.emit(".globl main");
         e.emit("main:");
-        stmt.compile(e);
+    }
+
+    /**
+     * Emits the system call that halts, which follows the statement of the program
+     * @param e the Emitter to output the MIPS instructions
+     */
+    public void compileHalt(Emitter e)
+    {
         e.emit("li $v0 10");
         e.emit("syscall #halt");
+    }
+
+    /**
+     * Emits the code of every procedure
+     * @param e the Emitter to output the MIPS instructions
+     */
+    public void compileProcedures(Emitter e)
+    {
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.compile(e);
+        }
+    }
+
+    /**
+     * Emits the data section, which has the new line string and a word for every
+     * global variable, leaving out the ones that the code no longer uses once dead code
+     * has been removed
+     * @param e the Emitter to output the MIPS instructions
+     */
+    public void compileData(Emitter e)
+    {
         e.emit(".data");
         e.emit("newline: .asciiz \"\\n\" ");
-        for (String variable: variables)
+        List<String> names = globals.getNames();
+        for (int slot = 0; slot < names.size(); slot++)
         {
-            e.emit("var" + variable + ": .word 0");
+            if (usedGlobals == null || usedGlobals.get(slot))
+            {
+                e.emit("var" + names.get(slot) + ": .word 0");
+            }
         }
-        e.close();
+    }
+
+    /**
+     * Emits the statement of the program followed by a halt, and then the procedures
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        b.setGlobalCount(globals.size());
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.declare(b);
+        }
+        stmt.compile(b);
+        b.emit(Opcode.HALT);
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.compile(b);
+        }
+    }
+
+    /**
+     * Compiles the program to bytecode for the VirtualMachine
+     * @return the compiled program
+     */
+    public Bytecode compile()
+    {
+        BytecodeEmitter b = new BytecodeEmitter();
+        compile(b);
+        return b.build();
+    }
+
+    /**
+     * Emits the statement of the program into the run method, adding a static field
+     * for every global variable and a static method for every procedure
+     * @param j the JvmEmitter for the run method
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        ClassBuilder c = j.getClassBuilder();
+        for (String variable: globals.getNames())
+        {
+            c.addField(variable);
+        }
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.declare(c);
+        }
+        stmt.compile(j);
+        j.emitReturn(false);
+        c.addMethod("run", "()V", j);
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.compile(j);
+        }
+    }
+
+    /**
+     * Compiles the program to a JVM class file
+     * @param className the name of the class
+     * @return the bytes of the class file
+     */
+    public byte[] compileClass(String className)
+    {
+        ClassBuilder c = new ClassBuilder(className);
+        compile(new JvmEmitter(c, 0, 0));
+        return c.toByteArray();
+    }
+
+    /**
+     * Simplifies the procedures and the statement of the program, and then removes its
+     * dead code. Should be called after the program is parsed and resolved,
+     * and before it is executed or compiled
+     * @return this Program
+     */
+    @Override
+    public Program optimize()
+    {
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.optimize();
+        }
+        stmt = stmt.optimize();
+        return eliminateDeadCode();
+    }
+
+    /**
+     * Removes the dead code of the program. The statement of the program is analyzed first,
+     * with no variable live at its end, and then every procedure that it calls, and every
+     * procedure that those call, each in a Liveness of its own. The procedures that are never
+     * called are removed, and the global variables that are no longer read or assigned
+     * are left out of the data section. The global variables keep their slots
+     * @return this Program
+     */
+    public Program eliminateDeadCode()
+    {
+        usedGlobals = new BitSet();
+        Set<String> called = new HashSet<String>();
+        stmt = stmt.eliminateDeadCode(new Liveness(globals.size(), usedGlobals, called));
+        Set<ProcedureDeclaration> done = new HashSet<ProcedureDeclaration>();
+        boolean found = true;
+        while (found)
+        {
+            found = false;
+            for (ProcedureDeclaration procedure: procedures)
+            {
+                if (called.contains(procedure.getName()) && done.add(procedure))
+                {
+                    procedure.eliminateDeadCode(
+                            new Liveness(globals.size(), usedGlobals, called));
+                    found = true;
+                }
+            }
+        }
+        List<ProcedureDeclaration> reachable = new ArrayList<ProcedureDeclaration>();
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            if (called.contains(procedure.getName()))
+            {
+                reachable.add(procedure);
+            }
+        }
+        procedures = reachable;
+        return this;
+    }
+
+    /**
+     * Compiles the procedures and the statement of the program to closures
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure that allocates the global variables and runs the statement
+     */
+    @Override
+    public StatementCode compile(ClosureCompiler c)
+    {
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.declare(c);
+        }
+        StatementCode main = stmt.compile(c);
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.compile(c);
+        }
+        int globalCount = globals.size();
+        return env ->
+        {
+            env.allocateGlobals(globalCount);
+            main.exec(env);
+        };
     }
 }
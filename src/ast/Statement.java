@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import emitter.*;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The abstract Statement class defines a statement that can execute itself
@@ -16,6 +19,54 @@ public abstract class Statement
      */
     public abstract void exec(Environment env);
 
+    /**
+     * Assigns a frame slot to every variable used by the statement
+     * @param scope the scope in which the statement appears
+     */
+    public abstract void resolve(Scope scope);
+
+    /**
+     * Folds the constant expressions in the statement and removes code that can never run
+     * @return the simplified statement, which may be this statement or an empty Block
+     */
+    public abstract Statement optimize();
+
+    /**
+     * Replaces the assignments of a call of a procedure to itself that are the last thing
+     * the procedure does with a TailCall, which reuses the frame instead of recursing
+     * @param proc the procedure whose body contains the statement
+     * @return the statement with its tail calls replaced, which may be this statement
+     */
+    public Statement markTailCalls(ProcedureDeclaration proc)
+    {
+        return this;
+    }
+
+    /**
+     * Removes the assignments whose value is never read and the code that can never run,
+     * going backwards from the variables that are live after the statement, which are changed
+     * into the variables that are live before it. The statement is left as it is while the
+     * Liveness is analyzing
+     * @param live the variables that are live after the statement
+     * @return the statement without its dead code, which may be this statement or an empty Block
+     */
+    public Statement eliminateDeadCode(Liveness live)
+    {
+        return this;
+    }
+
+    /**
+     * Emits the bytecode instructions for the corresponding AST component
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    public abstract void compile(BytecodeEmitter b);
+
+    /**
+     * Emits the JVM instructions for the corresponding AST component
+     * @param j the JvmEmitter for the method that contains the statement
+     */
+    public abstract void compile(JvmEmitter j);
+
     /**
      * Emits a sequence of MIPS instructions for the corresponding AST component
      * @param e the Emitter to output the MIPS instructions
@@ -24,4 +75,11 @@ public abstract class Statement
     {
         throw new RuntimeException("");
     }
+
+    /**
+     * Compiles the statement to a closure
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure that executes the statement
+     */
+    public abstract StatementCode compile(ClosureCompiler c);
 }
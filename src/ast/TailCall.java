@@ -0,0 +1,402 @@
+package ast;
+
+import closure.*;
+import emitter.Emitter;
+import environment.*;
+import java.util.*;
+import jvm.JvmEmitter;
+import vm.*;
+
+/**
+ * The TailCall class describes an assignment of a call of a procedure to itself to the
+ * variable with the name of the procedure, when the assignment is the last thing the procedure
+ * does. Instead of calling the procedure, it stores the arguments in the parameters, clears the
+ * other variables and runs the body again, so recursion of this kind does not use the stack.
+ *
+ * The call may also be added to or multiplied by another value, as in fact := n * fact(n - 1).
+ * That value is combined into an accumulator variable of the procedure, which is combined with
+ * the return value when the procedure ends.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class TailCall extends Statement
+{
+    private ProcedureDeclaration proc;
+    private String op;
+    private Expression operand;
+    private List<Expression> args;
+    private String profileName;
+
+    /**
+     * Constructor for objects of class TailCall
+     * @param proc the procedure that calls itself
+     * @param op + or * if the call is combined with another value, or null if it is not
+     * @param operand the value the call is combined with, or null
+     * @param args the arguments of the call
+     */
+    public TailCall(ProcedureDeclaration proc, String op, Expression operand, List<Expression> args)
+    {
+        this.proc = proc;
+        this.op = op;
+        this.operand = operand;
+        this.args = args;
+        proc.addTailCall();
+    }
+
+    /**
+     * Checks to see if the expression assigned to the return value of a procedure is a call of
+     * the procedure to itself. The call can be added to or multiplied by an expression on its
+     * left, or by a number or local variable on its right, which the call cannot change.
+     * A procedure can only combine its tail calls with one of + and *
+     * @param proc the procedure containing the assignment
+     * @param exp the expression that is assigned
+     * @return the TailCall, or null if the expression is not a tail call
+     */
+    public static TailCall match(ProcedureDeclaration proc, Expression exp)
+    {
+        if (isSelfCall(proc, exp))
+        {
+            return new TailCall(proc, null, null, ((ProcedureCall) exp).getArgs());
+        }
+        if (!(exp instanceof BinOp))
+        {
+            return null;
+        }
+        BinOp binOp = (BinOp) exp;
+        String op = binOp.getOp();
+        if (!(op.equals("+") || op.equals("*")))
+        {
+            return null;
+        }
+        Expression exp1 = binOp.getExp1();
+        Expression exp2 = binOp.getExp2();
+        if (isSelfCall(proc, exp2))
+        {
+            if (!proc.useAccumulator(op))
+            {
+                return null;
+            }
+            return new TailCall(proc, op, exp1, ((ProcedureCall) exp2).getArgs());
+        }
+        if (isSelfCall(proc, exp1) && (exp2 instanceof Number
+                || (exp2 instanceof Variable && ((Variable) exp2).isLocal())))
+        {
+            if (!proc.useAccumulator(op))
+            {
+                return null;
+            }
+            return new TailCall(proc, op, exp2, ((ProcedureCall) exp1).getArgs());
+        }
+        return null;
+    }
+
+    /**
+     * Checks to see if an expression calls a procedure with as many arguments
+     * as it has parameters
+     * @param proc the procedure
+     * @param exp the expression
+     * @return true if the expression is a call of the procedure; otherwise,
+     * false
+     */
+    private static boolean isSelfCall(ProcedureDeclaration proc, Expression exp)
+    {
+        return exp instanceof ProcedureCall
+                && ((ProcedureCall) exp).getName().equals(proc.getName())
+                && ((ProcedureCall) exp).getArgs().size() == proc.getParams().size();
+    }
+
+    /**
+     * Combines an accumulated value with another value
+     * @param op the operator, + or *
+     * @param value1 the first value
+     * @param value2 the second value
+     * @return the sum or the product of the values
+     */
+    public static int combine(String op, int value1, int value2)
+    {
+        if (op.equals("*"))
+        {
+            return value1 * value2;
+        }
+        return value1 + value2;
+    }
+
+    /**
+     * Combines the operand into the accumulator, evaluates the arguments and stores them in
+     * the parameters, sets the other variables to 0 and tells the procedure to run its body again.
+     * If profiling is on, the tail call is counted; its time is part of the call that it loops in
+     * @param env the environment containing the frame of the procedure
+     */
+    @Override
+    public void exec(Environment env)
+    {
+        Profiler profiler = env.getProfiler();
+        if (profiler != null)
+        {
+            if (profileName == null)
+            {
+                profileName = "TAIL CALL " + proc.getName();
+            }
+            profiler.count(profileName);
+        }
+        Frame frame = env.getLocals();
+        int accumulator = proc.getAccumulatorSlot();
+        if (op != null)
+        {
+            int value = operand.eval(env);
+            frame.set(accumulator, combine(op, frame.get(accumulator), value));
+        }
+        int paramCount = proc.getParams().size();
+        int[] values = new int[paramCount];
+        for (int i = 0; i < paramCount; i++)
+        {
+            values[i] = args.get(i).eval(env);
+        }
+        for (int slot = 0; slot < frame.size(); slot++)
+        {
+            if (slot != accumulator)
+            {
+                frame.set(slot, slot > 0 && slot <= paramCount ? values[slot - 1] : 0);
+            }
+        }
+        frame.setTailCall(true);
+    }
+
+    /**
+     * Resolves the operand and the arguments
+     * @param scope the scope of the procedure
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        if (operand != null)
+        {
+            operand.resolve(scope);
+        }
+        for (Expression arg: args)
+        {
+            arg.resolve(scope);
+        }
+    }
+
+    /**
+     * Records the variables read by the operand and the arguments as live. The body runs
+     * again after the TailCall, so every global variable and the accumulator are live,
+     * but the other local variables are not, since they are all assigned
+     * @param live the variables that are live after the TailCall
+     * @return this TailCall
+     */
+    @Override
+    public Statement eliminateDeadCode(Liveness live)
+    {
+        int accumulator = proc.getAccumulatorSlot();
+        for (int slot = 0; slot < proc.getFrameSize(); slot++)
+        {
+            if (slot != accumulator)
+            {
+                live.assign(true, slot);
+            }
+        }
+        live.readGlobals();
+        if (accumulator >= 0)
+        {
+            live.read(true, accumulator);
+        }
+        if (operand != null)
+        {
+            operand.addReads(live);
+        }
+        for (Expression arg: args)
+        {
+            arg.addReads(live);
+        }
+        return this;
+    }
+
+    /**
+     * Simplifies the operand and the arguments
+     * @return this TailCall
+     */
+    @Override
+    public Statement optimize()
+    {
+        if (operand != null)
+        {
+            operand = operand.optimize();
+        }
+        for (int i = 0; i < args.size(); i++)
+        {
+            args.set(i, args.get(i).optimize());
+        }
+        return this;
+    }
+
+    /**
+     * Combines the operand into the accumulator, pushes the arguments and pops them into the
+     * parameters, clears the other variables and jumps to the start of the body
+     * @param e the Emitter to output the MIPS instructions
+     */
+    @Override
+    public void compile(Emitter e)
+    {
+        int paramCount = proc.getParams().size();
+        int accumulator = proc.getAccumulatorSlot();
+        e.emit("# Tail call of " + proc.getName());
+        if (op != null)
+        {
+            String instruction = op.equals("*") ? "mulu" : "addu";
+            String reg = "$v0";
+            if (e.isRegisterAllocation())
+            {
+                operand.compile(e, 0);
+                reg = e.register(0);
+            }
+            else
+            {
+                operand.compile(e);
+            }
+            e.emit("lw $v1 " + e.frameAddress(accumulator));
+            e.emit(instruction + " $v1 $v1 " + reg);
+            e.emit("sw $v1 " + e.frameAddress(accumulator) + "\n");
+        }
+        for (int i = 0; i < paramCount; i++)
+        {
+            if (e.isRegisterAllocation())
+            {
+                args.get(i).compile(e, 0);
+                e.emitPush(e.register(0));
+            }
+            else
+            {
+                args.get(i).compile(e);
+                e.emitPush("$v0");
+            }
+        }
+        for (int slot = paramCount; slot > 0; slot--)
+        {
+            e.emitPop("$v0");
+            e.emit("sw $v0 " + e.frameAddress(slot));
+        }
+        for (int slot = 0; slot < proc.getFrameSize(); slot++)
+        {
+            if ((slot == 0 || slot > paramCount) && slot != accumulator)
+            {
+                e.emit("sw $zero " + e.frameAddress(slot));
+            }
+        }
+        e.emit("j " + proc.bodyLabel(e) + "\n");
+    }
+
+    /**
+     * Combines the operand into the accumulator, pushes the arguments and stores them into the
+     * parameters, clears the other variables and jumps to the start of the body
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        int paramCount = proc.getParams().size();
+        int accumulator = proc.getAccumulatorSlot();
+        if (op != null)
+        {
+            b.emit(Opcode.LOAD_LOCAL, accumulator);
+            operand.compile(b);
+            b.emit(Opcode.arithmetic(op));
+            b.emit(Opcode.STORE_LOCAL, accumulator);
+        }
+        for (int i = 0; i < paramCount; i++)
+        {
+            args.get(i).compile(b);
+        }
+        for (int slot = paramCount; slot > 0; slot--)
+        {
+            b.emit(Opcode.STORE_LOCAL, slot);
+        }
+        for (int slot = 0; slot < proc.getFrameSize(); slot++)
+        {
+            if ((slot == 0 || slot > paramCount) && slot != accumulator)
+            {
+                b.emit(Opcode.PUSH, 0);
+                b.emit(Opcode.STORE_LOCAL, slot);
+            }
+        }
+        b.emitJump(Opcode.JUMP, proc.getBodyLabel());
+    }
+
+    /**
+     * Combines the operand into the accumulator, pushes the arguments and stores them into the
+     * parameters, clears the other variables and jumps to the start of the body
+     * @param j the JvmEmitter for the method of the procedure
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        int paramCount = proc.getParams().size();
+        int accumulator = proc.getAccumulatorSlot();
+        if (op != null)
+        {
+            j.emitLoadLocal(accumulator);
+            operand.compile(j);
+            j.emitArithmetic(op);
+            j.emitStoreLocal(accumulator);
+        }
+        for (int i = 0; i < paramCount; i++)
+        {
+            args.get(i).compile(j);
+        }
+        for (int slot = paramCount; slot > 0; slot--)
+        {
+            j.emitStoreLocal(slot);
+        }
+        for (int slot = 0; slot < proc.getFrameSize(); slot++)
+        {
+            if ((slot == 0 || slot > paramCount) && slot != accumulator)
+            {
+                j.emitConstant(0);
+                j.emitStoreLocal(slot);
+            }
+        }
+        j.emitJump(proc.getBodyLabel());
+    }
+
+    /**
+     * Compiles the tail call to a closure that does the same as exec
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the tail call
+     */
+    @Override
+    public StatementCode compile(ClosureCompiler c)
+    {
+        int paramCount = proc.getParams().size();
+        int accumulator = proc.getAccumulatorSlot();
+        ExpressionCode value = op == null ? null : c.arithmetic(op, c.load(true, accumulator),
+                operand.compile(c));
+        ExpressionCode[] codes = new ExpressionCode[paramCount];
+        for (int i = 0; i < paramCount; i++)
+        {
+            codes[i] = args.get(i).compile(c);
+        }
+        return env ->
+        {
+            Frame frame = env.getLocals();
+            int[] values = new int[paramCount];
+            if (value != null)
+            {
+                frame.set(accumulator, value.eval(env));
+            }
+            for (int i = 0; i < paramCount; i++)
+            {
+                values[i] = codes[i].eval(env);
+            }
+            for (int slot = 0; slot < frame.size(); slot++)
+            {
+                if (slot != accumulator)
+                {
+                    frame.set(slot, slot > 0 && slot <= paramCount ? values[slot - 1] : 0);
+                }
+            }
+            frame.setTailCall(true);
+        };
+    }
+}
@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The Variable class creates a variable with a given name
@@ -12,6 +15,8 @@ import environment.*;
 public class Variable extends Expression
 {
     private String name;
+    private boolean local;
+    private int slot;
 
     /**
      * Constructor for objects of class Variable
@@ -30,19 +35,119 @@ public class Variable extends Expression
     @Override
     public int eval(Environment env)
     {
-        return env.getVariable(name);
+        if (local)
+        {
+            return env.getLocals().get(slot);
+        }
+        return env.getGlobals().get(slot);
     }
 
     /**
-     * Loads the variable into $v0
+     * Checks to see if the variable belongs to a procedure
+     * @return true if the variable is in the frame of a procedure; otherwise,
+     * false
+     */
+    public boolean isLocal()
+    {
+        return local;
+    }
+
+    /**
+     * Assigns a frame slot to the variable
+     * @param scope the scope in which the variable is used
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        Scope owner = scope.resolve(name);
+        local = !owner.isGlobal();
+        slot = owner.lookup(name);
+    }
+
+    /**
+     * Records the variable as live
+     * @param live the variables that are live after the variable is read
+     */
+    @Override
+    public void addReads(Liveness live)
+    {
+        live.read(local, slot);
+    }
+
+    /**
+     * Loads the variable into $v0, from the frame of the procedure if it is local
      * @param e the Emitter to output the MIPS instructions
      */
     @Override
     public void compile(Emitter e)
     {
+        if (local)
+        {
+            e.emit("# Sets $v0 to " + name);
+            e.emit("lw $v0 " + e.frameAddress(slot) + "\n");
+            return;
+        }
         e.emit("# Sets $v0 to var" + name);
         e.emit("la $t0 var" + name);
         e.emit("lw $v0 ($t0)\n");
     }
-}
 
+    /**
+     * Loads the variable into a register
+     * @param e the Emitter to output the MIPS instructions
+     * @param reg the index of the register that holds the result
+     */
+    @Override
+    public void compile(Emitter e, int reg)
+    {
+        e.emit("lw " + e.register(reg) + " " + (local ? e.frameAddress(slot) : "var" + name));
+    }
+
+    /**
+     * Pushes the value in the slot of the variable
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        b.emit(local ? Opcode.LOAD_LOCAL : Opcode.LOAD_GLOBAL, slot);
+    }
+
+    /**
+     * Pushes the value of the variable
+     * @param j the JvmEmitter for the method that contains the variable
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        if (local)
+        {
+            j.emitLoadLocal(slot);
+        }
+        else
+        {
+            j.emitLoadGlobal(slot);
+        }
+    }
+
+    /**
+     * A Variable cannot be simplified
+     * @return this Variable
+     */
+    @Override
+    public Expression optimize()
+    {
+        return this;
+    }
+
+    /**
+     * Compiles the variable to a closure that reads its slot
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the variable
+     */
+    @Override
+    public ExpressionCode compile(ClosureCompiler c)
+    {
+        return c.load(local, slot);
+    }
+}
@@ -1,7 +1,12 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.Environment;
+import environment.Profiler;
+import environment.Scope;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The While class defines a statement that will be executed while a condition evaluates to true
@@ -12,6 +17,8 @@ public class While extends Statement
 {
     private Condition cond;
     private Statement stmt;
+    private int line;
+    private String profileName;
 
     /**
      * Constructors for objects of class While
@@ -25,16 +32,113 @@ public class While extends Statement
     }
 
     /**
-     * Executes the statement while the condition evaluates to true
+     * Sets the line the loop starts on, which names it in a profile
+     * @param line the line of the WHILE keyword
+     */
+    public void setLine(int line)
+    {
+        this.line = line;
+    }
+
+    /**
+     * Executes the statement while the condition evaluates to true.
+     * If profiling is on, the number of iterations and the time of the loop are recorded
      * @param env the environment containing the variables and procedures used during execution
      */
     @Override
     public void exec (Environment env)
     {
+        Profiler profiler = env.getProfiler();
+        if (profiler != null)
+        {
+            profile(env, profiler);
+            return;
+        }
+        while (cond.eval(env)==1)
+        {
+            stmt.exec(env);
+        }
+    }
+
+    /**
+     * Executes the loop and records it in a Profiler
+     * @param env the environment containing the variables and procedures used during execution
+     * @param profiler the Profiler of the environment
+     */
+    private void profile(Environment env, Profiler profiler)
+    {
+        if (profileName == null)
+        {
+            profileName = "WHILE at line " + line + " in " + profiler.currentProcedure();
+        }
+        long start = profiler.start(profileName);
+        long iterations = 0;
         while (cond.eval(env)==1)
         {
             stmt.exec(env);
+            iterations++;
         }
+        profiler.record(profileName, iterations, start);
+    }
+
+    /**
+     * Resolves the condition and the statement of the loop
+     * @param scope the scope in which the loop appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        cond.resolve(scope);
+        stmt.resolve(scope);
+    }
+
+    /**
+     * Checks to see if the loop never ends, because its condition is always true
+     * @return true if the condition is a constant that is true; otherwise,
+     * false
+     */
+    public boolean isInfinite()
+    {
+        return cond.isConstant() && cond.isAlwaysTrue();
+    }
+
+    /**
+     * Removes the dead code in the statement of the loop. The variables that are live before
+     * the loop are found by analyzing the statement again and again, starting with the ones
+     * live after the loop and the ones read by the condition, until they stop changing,
+     * since a variable read by the statement may have been assigned by the iteration before it.
+     * The statement is then changed using the variables that are live at the end of it
+     * @param live the variables that are live after the loop
+     * @return this While
+     */
+    @Override
+    public Statement eliminateDeadCode(Liveness live)
+    {
+        Liveness entry = live.copy();
+        entry.setAnalyzing(true);
+        cond.addReads(entry);
+        while (true)
+        {
+            Liveness next = entry.copy();
+            stmt.eliminateDeadCode(next);
+            next.addAll(live);
+            cond.addReads(next);
+            if (next.isSameAs(entry))
+            {
+                break;
+            }
+            entry = next;
+        }
+        Liveness end = entry.copy();
+        end.setAnalyzing(live.isAnalyzing());
+        Statement body = stmt.eliminateDeadCode(end);
+        if (!live.isAnalyzing())
+        {
+            stmt = body;
+        }
+        live.set(entry);
+        cond.addReads(live);
+        return this;
     }
 
     /**
@@ -46,8 +150,8 @@ public class While extends Statement
     public void compile(Emitter e)
     {
         int labelID = e.nextLabelID();
-        String beginLabel = "beginwhile"+labelID;
-        String endLabel = "endwhile"+labelID;
+        String beginLabel = e.label("beginwhile", labelID);
+        String endLabel = e.label("endwhile", labelID);
         e.emit(beginLabel + ":");
         cond.compile(e, endLabel);
         stmt.compile(e);
@@ -55,4 +159,74 @@ public class While extends Statement
         e.emit(endLabel + ":");
 
     }
+
+    /**
+     * Emits the condition, which leaves the loop if it is false, the statement,
+     * and a jump back to the condition
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        int beginLabel = b.newLabel();
+        int endLabel = b.newLabel();
+        b.placeLabel(beginLabel);
+        cond.compile(b, endLabel);
+        stmt.compile(b);
+        b.emitJump(Opcode.JUMP, beginLabel);
+        b.placeLabel(endLabel);
+    }
+
+    /**
+     * Emits the condition, which leaves the loop if it is false, the statement,
+     * and a jump back to the condition
+     * @param j the JvmEmitter for the method that contains the loop
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        int beginLabel = j.newLabel();
+        int endLabel = j.newLabel();
+        j.placeLabel(beginLabel);
+        cond.compile(j, endLabel);
+        stmt.compile(j);
+        j.emitJump(beginLabel);
+        j.placeLabel(endLabel);
+    }
+
+    /**
+     * Simplifies the condition and the statement.
+     * A loop whose condition is always false is removed
+     * @return the simplified statement
+     */
+    @Override
+    public Statement optimize()
+    {
+        cond = cond.optimize();
+        if (cond.isConstant() && !cond.isAlwaysTrue())
+        {
+            return new Block();
+        }
+        stmt = stmt.optimize();
+        return this;
+    }
+
+    /**
+     * Compiles the loop to a closure
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the loop
+     */
+    @Override
+    public StatementCode compile(ClosureCompiler c)
+    {
+        ConditionCode test = cond.compileCondition(c);
+        StatementCode body = stmt.compile(c);
+        return env ->
+        {
+            while (test.test(env))
+            {
+                body.exec(env);
+            }
+        };
+    }
 }
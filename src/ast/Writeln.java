@@ -1,7 +1,10 @@
 package ast;
 
+import closure.*;
 import emitter.Emitter;
 import environment.*;
+import jvm.JvmEmitter;
+import vm.*;
 
 /**
  * The Writeln class defines a Statement that prints the value of an expression
@@ -32,6 +35,28 @@ public class Writeln extends Statement
         System.out.println(exp.eval(env));
     }
 
+    /**
+     * Resolves the expression to be printed
+     * @param scope the scope in which the statement appears
+     */
+    @Override
+    public void resolve(Scope scope)
+    {
+        exp.resolve(scope);
+    }
+
+    /**
+     * Records the variables read by the expression that is printed as live
+     * @param live the variables that are live after the statement
+     * @return this Writeln
+     */
+    @Override
+    public Statement eliminateDeadCode(Liveness live)
+    {
+        exp.addReads(live);
+        return this;
+    }
+
     /**
      * Compiles the expression, prints $v0, and then prints a new line
      * @param e the Emitter to output the MIPS instructions
@@ -39,9 +64,18 @@ public class Writeln extends Statement
     @Override
     public void compile(Emitter e)
     {
-        exp.compile(e);
-        e.emit("# Prints $v0");
-        e.emit("move $a0 $v0");
+        if (e.isRegisterAllocation())
+        {
+            exp.compile(e, 0);
+            e.emit("# Prints " + e.register(0));
+            e.emit("move $a0 " + e.register(0));
+        }
+        else
+        {
+            exp.compile(e);
+            e.emit("# Prints $v0");
+            e.emit("move $a0 $v0");
+        }
         e.emit("li $v0 1");
         e.emit("syscall\n");
         e.emit("# Prints a new line");
@@ -49,4 +83,49 @@ public class Writeln extends Statement
         e.emit("li $v0 4");
         e.emit("syscall\n");
     }
+
+    /**
+     * Pushes the expression and prints it
+     * @param b the BytecodeEmitter that collects the instructions
+     */
+    @Override
+    public void compile(BytecodeEmitter b)
+    {
+        exp.compile(b);
+        b.emit(Opcode.WRITELN);
+    }
+
+    /**
+     * Pushes the expression and prints it
+     * @param j the JvmEmitter for the method that contains the statement
+     */
+    @Override
+    public void compile(JvmEmitter j)
+    {
+        exp.compile(j);
+        j.emitWriteln();
+    }
+
+    /**
+     * Simplifies the expression that is printed
+     * @return this Writeln
+     */
+    @Override
+    public Statement optimize()
+    {
+        exp = exp.optimize();
+        return this;
+    }
+
+    /**
+     * Compiles the statement to a closure that prints the value of the expression
+     * @param c the ClosureCompiler that creates the closures
+     * @return the closure of the statement
+     */
+    @Override
+    public StatementCode compile(ClosureCompiler c)
+    {
+        ExpressionCode code = exp.compile(c);
+        return env -> System.out.println(code.eval(env));
+    }
 }
@@ -0,0 +1,216 @@
+package closure;
+
+import java.util.*;
+
+/**
+ * The ClosureCompiler class builds the closures that an AST is compiled to.
+ * The operator of every arithmetic and comparison is looked at once, here, and each
+ * operator gets its own closure, with a separate closure when the right operand is a constant.
+ * Every closure call site in a running program then only ever sees one kind of closure,
+ * which the JIT can inline.
+ *
+ * The ClosureCompiler also keeps the procedures, so that calls can find the procedure they call.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class ClosureCompiler
+{
+    private Map<String, ProcedureCode> procedures;
+
+    /**
+     * Constructor for objects of class ClosureCompiler
+     */
+    public ClosureCompiler()
+    {
+        procedures = new HashMap<String, ProcedureCode>();
+    }
+
+    /**
+     * Declares a procedure so that calls to it can be compiled before its body
+     * @param name the name of the procedure
+     * @param procedure the procedure, whose body is set once it is compiled
+     */
+    public void declareProcedure(String name, ProcedureCode procedure)
+    {
+        procedures.put(name, procedure);
+    }
+
+    /**
+     * Gets a procedure that has been declared
+     * @param name the name of the procedure
+     * @return the procedure
+     * @throws IllegalArgumentException if no procedure with the name has been declared
+     */
+    public ProcedureCode getProcedure(String name)
+    {
+        ProcedureCode procedure = procedures.get(name);
+        if (procedure == null)
+        {
+            throw new IllegalArgumentException("Undeclared procedure: " + name);
+        }
+        return procedure;
+    }
+
+    /**
+     * Creates the closure for a constant
+     * @param value the value of the constant
+     * @return the closure, which always gives the value
+     */
+    public ExpressionCode constant(int value)
+    {
+        return env -> value;
+    }
+
+    /**
+     * Creates the closure that reads a variable
+     * @param local true if the variable is in the frame of a procedure,
+     *              false if it is a global variable
+     * @param slot the slot of the variable
+     * @return the closure, which gives the value of the variable
+     */
+    public ExpressionCode load(boolean local, int slot)
+    {
+        if (local)
+        {
+            return env -> env.getLocals().get(slot);
+        }
+        return env -> env.getGlobals().get(slot);
+    }
+
+    /**
+     * Creates the closure that assigns a value to a variable
+     * @param local true if the variable is in the frame of a procedure,
+     *              false if it is a global variable
+     * @param slot the slot of the variable
+     * @param value the closure of the value
+     * @return the closure of the assignment
+     */
+    public StatementCode store(boolean local, int slot, ExpressionCode value)
+    {
+        if (local)
+        {
+            return env -> env.getLocals().set(slot, value.eval(env));
+        }
+        return env -> env.getGlobals().set(slot, value.eval(env));
+    }
+
+    /**
+     * Creates the closure for an arithmetic operation
+     * @param op a String containing the binary operator
+     * @param exp1 the closure of the first operand
+     * @param exp2 the closure of the second operand
+     * @return the closure of the operation
+     * @throws IllegalArgumentException if the operator is not +, -, * or /
+     */
+    public ExpressionCode arithmetic(String op, ExpressionCode exp1, ExpressionCode exp2)
+    {
+        switch (op)
+        {
+            case "+": return env -> exp1.eval(env) + exp2.eval(env);
+            case "-": return env -> exp1.eval(env) - exp2.eval(env);
+            case "*": return env -> exp1.eval(env) * exp2.eval(env);
+            case "/": return env -> exp1.eval(env) / exp2.eval(env);
+            default: throw new IllegalArgumentException("Unknown operator: " + op);
+        }
+    }
+
+    /**
+     * Creates the closure for an arithmetic operation whose second operand is a constant
+     * @param op a String containing the binary operator
+     * @param exp1 the closure of the first operand
+     * @param value the value of the second operand
+     * @return the closure of the operation
+     * @throws IllegalArgumentException if the operator is not +, -, * or /
+     */
+    public ExpressionCode arithmetic(String op, ExpressionCode exp1, int value)
+    {
+        switch (op)
+        {
+            case "+": return env -> exp1.eval(env) + value;
+            case "-": return env -> exp1.eval(env) - value;
+            case "*": return env -> exp1.eval(env) * value;
+            case "/": return env -> exp1.eval(env) / value;
+            default: throw new IllegalArgumentException("Unknown operator: " + op);
+        }
+    }
+
+    /**
+     * Creates the closure for a comparison
+     * @param relop a String representing the relative operator
+     * @param exp1 the closure of the first expression
+     * @param exp2 the closure of the second expression
+     * @return the closure of the comparison
+     * @throws IllegalArgumentException if the relative operator is unknown
+     */
+    public ConditionCode compare(String relop, ExpressionCode exp1, ExpressionCode exp2)
+    {
+        switch (relop)
+        {
+            case "=": return env -> exp1.eval(env) == exp2.eval(env);
+            case "<>": return env -> exp1.eval(env) != exp2.eval(env);
+            case "<": return env -> exp1.eval(env) < exp2.eval(env);
+            case ">": return env -> exp1.eval(env) > exp2.eval(env);
+            case "<=": return env -> exp1.eval(env) <= exp2.eval(env);
+            case ">=": return env -> exp1.eval(env) >= exp2.eval(env);
+            default: throw new IllegalArgumentException("Unknown relative operator: " + relop);
+        }
+    }
+
+    /**
+     * Creates the closure for a comparison with a constant
+     * @param relop a String representing the relative operator
+     * @param exp1 the closure of the first expression
+     * @param value the value of the second expression
+     * @return the closure of the comparison
+     * @throws IllegalArgumentException if the relative operator is unknown
+     */
+    public ConditionCode compare(String relop, ExpressionCode exp1, int value)
+    {
+        switch (relop)
+        {
+            case "=": return env -> exp1.eval(env) == value;
+            case "<>": return env -> exp1.eval(env) != value;
+            case "<": return env -> exp1.eval(env) < value;
+            case ">": return env -> exp1.eval(env) > value;
+            case "<=": return env -> exp1.eval(env) <= value;
+            case ">=": return env -> exp1.eval(env) >= value;
+            default: throw new IllegalArgumentException("Unknown relative operator: " + relop);
+        }
+    }
+
+    /**
+     * Creates the closure that executes statements in order
+     * @param stmts the closures of the statements
+     * @return the closure of the block
+     */
+    public StatementCode block(List<StatementCode> stmts)
+    {
+        if (stmts.isEmpty())
+        {
+            return env -> { };
+        }
+        if (stmts.size() == 1)
+        {
+            return stmts.get(0);
+        }
+        if (stmts.size() == 2)
+        {
+            StatementCode first = stmts.get(0);
+            StatementCode second = stmts.get(1);
+            return env ->
+            {
+                first.exec(env);
+                second.exec(env);
+            };
+        }
+        StatementCode[] codes = stmts.toArray(new StatementCode[0]);
+        return env ->
+        {
+            for (StatementCode code: codes)
+            {
+                code.exec(env);
+            }
+        };
+    }
+}
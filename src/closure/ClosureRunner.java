@@ -0,0 +1,51 @@
+package closure;
+
+import ast.Program;
+import environment.Environment;
+import parser.Parser;
+import scanner.*;
+import java.io.*;
+
+/**
+ * The ClosureRunner class compiles a Program to closures and runs them.
+ * This executes the same way as Program.exec, but every operator is dispatched
+ * once when the program is compiled instead of every time an expression is evaluated.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class ClosureRunner
+{
+    /**
+     * Compiles a program to closures
+     * @param program the program to be compiled, which has been resolved
+     * @return the closure of the whole program
+     */
+    public static StatementCode compile(Program program)
+    {
+        return program.compile(new ClosureCompiler());
+    }
+
+    /**
+     * Compiles and runs a program
+     * @param program the program to be run
+     */
+    public static void run(Program program)
+    {
+        compile(program).exec(new Environment());
+    }
+
+    /**
+     * Parses the program in a file, compiles it to closures and runs it
+     * @param args the name of the file containing the program
+     * @throws IOException if the file being scanned does not exist
+     * @throws ScanErrorException if the expected value in the character in the input stream
+     *                            does not match the actual value
+     */
+    public static void main (String[] args) throws IOException, ScanErrorException
+    {
+        Scanner sc = new Scanner(new FileInputStream(new File(args[0])));
+        Parser p = new Parser(sc);
+        run(p.parseProgram().optimize());
+    }
+}
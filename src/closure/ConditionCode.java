@@ -0,0 +1,22 @@
+package closure;
+
+import environment.Environment;
+
+/**
+ * The ConditionCode interface is the condition of an if statement or a while loop that has
+ * been compiled to a closure. It gives a boolean directly instead of 1 or 0.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+@FunctionalInterface
+public interface ConditionCode
+{
+    /**
+     * Tests the condition
+     * @param env the environment containing the frames of the running program
+     * @return true if the condition is true; otherwise,
+     * false
+     */
+    boolean test(Environment env);
+}
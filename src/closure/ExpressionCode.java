@@ -0,0 +1,22 @@
+package closure;
+
+import environment.Environment;
+
+/**
+ * The ExpressionCode interface is an expression that has been compiled to a closure.
+ * Each closure is specialized for its operator when it is compiled, so evaluating it
+ * does not look at the operator again.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+@FunctionalInterface
+public interface ExpressionCode
+{
+    /**
+     * Evaluates the expression
+     * @param env the environment containing the frames of the running program
+     * @return the value of the expression
+     */
+    int eval(Environment env);
+}
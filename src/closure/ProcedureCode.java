@@ -0,0 +1,94 @@
+package closure;
+
+import environment.Environment;
+import environment.Frame;
+
+/**
+ * The ProcedureCode class is a procedure whose body has been compiled to a closure.
+ * It is created when the procedure is declared, so that calls can be compiled before the body.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class ProcedureCode
+{
+    private int frameSize;
+    private int paramCount;
+    private int accumulatorSlot;
+    private boolean multiply;
+    private StatementCode body;
+
+    /**
+     * Constructor for objects of class ProcedureCode
+     * @param frameSize the number of slots in a frame of the procedure
+     * @param paramCount the number of parameters
+     * @param accumulatorOp the operator the tail calls are combined with, or null if there
+     *                      is no accumulator
+     * @param accumulatorSlot the slot of the accumulator, or -1 if there is none
+     */
+    public ProcedureCode(int frameSize, int paramCount, String accumulatorOp, int accumulatorSlot)
+    {
+        this.frameSize = frameSize;
+        this.paramCount = paramCount;
+        this.accumulatorSlot = accumulatorSlot;
+        multiply = "*".equals(accumulatorOp);
+    }
+
+    /**
+     * Sets the body of the procedure once it has been compiled
+     * @param body the compiled body
+     */
+    public void setBody(StatementCode body)
+    {
+        this.body = body;
+    }
+
+    /**
+     * Gets the number of slots needed for a frame of the procedure
+     * @return the size of the frame
+     */
+    public int getFrameSize()
+    {
+        return frameSize;
+    }
+
+    /**
+     * Gets the number of parameters of the procedure
+     * @return the number of parameters
+     */
+    public int getParamCount()
+    {
+        return paramCount;
+    }
+
+    /**
+     * Executes the body in an environment whose parameters have been set, running it again
+     * as long as it ends with a tail call
+     * @param local the local environment of the procedure
+     * @return the value of the variable with the name of the procedure,
+     * combined with the accumulator if there is one
+     */
+    public int invoke(Environment local)
+    {
+        Frame frame = local.getLocals();
+        if (accumulatorSlot >= 0)
+        {
+            frame.set(accumulatorSlot, multiply ? 1 : 0);
+        }
+        do
+        {
+            frame.setTailCall(false);
+            body.exec(local);
+        }
+        while (frame.isTailCall());
+        if (accumulatorSlot < 0)
+        {
+            return frame.get(0);
+        }
+        if (multiply)
+        {
+            return frame.get(accumulatorSlot) * frame.get(0);
+        }
+        return frame.get(accumulatorSlot) + frame.get(0);
+    }
+}
@@ -0,0 +1,19 @@
+package closure;
+
+import environment.Environment;
+
+/**
+ * The StatementCode interface is a statement that has been compiled to a closure.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+@FunctionalInterface
+public interface StatementCode
+{
+    /**
+     * Executes the statement
+     * @param env the environment containing the frames of the running program
+     */
+    void exec(Environment env);
+}
@@ -0,0 +1,511 @@
+package driver;
+
+import ast.Program;
+import emitter.Emitter;
+import parser.Parser;
+import scanner.MappedScanner;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+import scanner.Token;
+import scanner.TokenKind;
+import scanner.TokenListScanner;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The BatchCompiler class compiles many programs to MIPS assembly at once.
+ * Every input file is scanned by a MappedScanner, parsed, optimized and compiled on its own
+ * task of a ForkJoinPool, and its code is passed through the Peephole and written to a file
+ * with the same name ending in .asm.
+ * A program that fails to compile is reported and does not stop the others.
+ * With a CompileCache, a program whose source and options have not changed since it was last
+ * compiled is copied from the cache instead of being compiled again. A program that has changed
+ * is compiled by a Linker, which only compiles the procedures that have changed.
+ * In streaming mode each program is compiled while it is parsed, which keeps the memory used by
+ * a very large program small. Dead code is not removed in streaming mode, so its code is not
+ * the same as the code of the program compiled as a whole.
+ * In parallel parsing mode the procedures of each program are parsed on the same pool of threads
+ * as the programs, which helps when a few programs with many procedures are compiled.
+ * In the same way, in parallel code generation mode the procedures and the parts of the block of
+ * each program are compiled by a ParallelCompiler on the same pool of threads.
+ * When metrics are collected, each program is instead scanned, parsed, optimized and compiled
+ * one phase after another, and each phase is measured in a CompileMetrics.
+ *
+ * Usage:
+ * java driver.BatchCompiler [-r] [-s] [-m] [-p] [-g] [-j threads] [-o directory]
+ *                           [-c directory] [-t file] (file | directory | @list)...
+ *
+ * -r            compiles with register allocation
+ * -s            leaves the comment lines out of the .asm files
+ * -m            compiles each statement of a program as soon as it is parsed
+ * -p            parses the procedures of each program in parallel
+ * -g            compiles the procedures and the parts of the block of each program in parallel
+ * -j threads    the number of programs compiled at the same time (default: the number of cores)
+ * -o directory  the directory the .asm files are written to (default: next to each input)
+ * -c directory  the directory of the compile cache (default: no cache)
+ * -t file       measures the phases of each program and writes the metrics to file as JSON,
+ *               one object per line
+ * directory     compiles every .txt and .pas file in the directory
+ * @list         compiles every file named in list, one per line
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class BatchCompiler
+{
+    private boolean registerAllocation;
+    private boolean release;
+    private boolean peephole;
+    private Path outputDirectory;
+    private CompileCache cache;
+    private boolean streaming;
+    private boolean parallelParsing;
+    private boolean parallelCodegen;
+    private Map<Path, CompileMetrics> metrics;
+
+    /**
+     * Constructor for objects of class BatchCompiler
+     * @param registerAllocation true to compile with register allocation, false to use the stack
+     * @param release true to leave the comment lines out of the code
+     * @param outputDirectory the directory the .asm files are written to,
+     *                        or null to write each one next to its input
+     */
+    public BatchCompiler(boolean registerAllocation, boolean release, Path outputDirectory)
+    {
+        this.registerAllocation = registerAllocation;
+        this.release = release;
+        this.outputDirectory = outputDirectory;
+        peephole = true;
+    }
+
+    /**
+     * Sets the cache that compiled programs are looked up in and stored in
+     * @param cache the cache, or null to compile every program
+     */
+    public void setCache(CompileCache cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Gets the cache that compiled programs are looked up in and stored in
+     * @return the cache, or null if every program is compiled
+     */
+    public CompileCache getCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Turns streaming mode on or off. In streaming mode the statement of each program is
+     * compiled while it is parsed and its code is written as it is emitted, and the procedures
+     * are not compiled as separate units. The dead code of the program is not removed, since
+     * the whole statement of the program is never held at once
+     * @param streaming true to compile programs while they are parsed
+     */
+    public void setStreaming(boolean streaming)
+    {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Turns parallel parsing on or off. With parallel parsing the procedures of each program
+     * are parsed on their own tasks. It has no effect in streaming mode
+     * @param parallelParsing true to parse the procedures of a program in parallel
+     */
+    public void setParallelParsing(boolean parallelParsing)
+    {
+        this.parallelParsing = parallelParsing;
+    }
+
+    /**
+     * Turns parallel code generation on or off. With parallel code generation the procedures
+     * and the parts of the block of each program are compiled by a ParallelCompiler.
+     * It has no effect in streaming mode or with a cache, where the Linker compiles the units
+     * @param parallelCodegen true to compile the units of a program in parallel
+     */
+    public void setParallelCodegen(boolean parallelCodegen)
+    {
+        this.parallelCodegen = parallelCodegen;
+    }
+
+    /**
+     * Turns the collection of metrics on or off. With metrics, every program is compiled
+     * by measure instead of with the cache, streaming or parallel modes,
+     * and its metrics are kept until they are read with getMetrics
+     * @param measuring true to measure the phases of every program
+     */
+    public void setMeasuring(boolean measuring)
+    {
+        metrics = measuring ? new ConcurrentHashMap<Path, CompileMetrics>() : null;
+    }
+
+    /**
+     * Gets the metrics of the programs that have been compiled while measuring
+     * @return the metrics by input file, or null if metrics are not being collected
+     */
+    public Map<Path, CompileMetrics> getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Describes the options that change the code generated for a program,
+     * which are part of the key of the program in the cache. Streaming changes the code,
+     * since dead code is only removed when the whole program is parsed first
+     * @return the options of the BatchCompiler
+     */
+    private String options()
+    {
+        return "registerAllocation=" + registerAllocation + " release=" + release
+                + " peephole=" + peephole + " streaming=" + streaming;
+    }
+
+    /**
+     * Gets the file that the code of an input file is written to
+     * @param input the file containing the program
+     * @return the input file name with its extension replaced by .asm
+     */
+    public Path outputFile(Path input)
+    {
+        String name = input.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0)
+        {
+            name = name.substring(0, dot);
+        }
+        name += ".asm";
+        if (outputDirectory != null)
+        {
+            return outputDirectory.resolve(name);
+        }
+        return input.resolveSibling(name);
+    }
+
+    /**
+     * Scans, parses, optimizes and compiles the program in a file. The file is scanned in place
+     * by a MappedScanner, which maps it into memory, or scans the bytes read for its key in
+     * the cache, so it is not copied through a stream.
+     * If there is a cache and it has the code of the program, the code is copied instead.
+     * Otherwise the program is compiled by a Linker, which takes the procedures that have not
+     * changed from the cache, and the code that is generated is stored in the cache
+     * @param input the file containing the program
+     * @return the file the code was written to
+     * @throws IOException if the file cannot be read
+     * @throws ScanErrorException if the file contains a character that does not start a token
+     */
+    public Path compile(Path input) throws IOException, ScanErrorException
+    {
+        Path output = outputFile(input);
+        if (metrics != null)
+        {
+            metrics.put(input, measure(input));
+            return output;
+        }
+        if (cache == null)
+        {
+            compile(new Parser(new MappedScanner(input.toFile())), output);
+            return output;
+        }
+        byte[] source = Files.readAllBytes(input);
+        String key = cache.key(source, options());
+        if (!cache.fetch(key, output))
+        {
+            compile(new Parser(new MappedScanner(ByteBuffer.wrap(source))), output);
+            cache.store(key, output);
+        }
+        return output;
+    }
+
+    /**
+     * Scans, parses, optimizes and compiles the program in a file one phase at a time,
+     * measuring each phase. All the tokens are scanned before the program is parsed, and
+     * the parse phase includes resolving the variables. The compile phase includes writing
+     * the code to the file
+     * @param input the file containing the program
+     * @return the metrics of the program
+     * @throws IOException if the file cannot be read
+     * @throws ScanErrorException if the file contains a character that does not start a token
+     */
+    public CompileMetrics measure(Path input) throws IOException, ScanErrorException
+    {
+        CompileMetrics m = new CompileMetrics(input.toString());
+        m.begin();
+        List<Token> tokens = new ArrayList<Token>();
+        Scanner sc = new MappedScanner(input.toFile());
+        for (Token token = sc.next(); token.getKind() != TokenKind.EOF; token = sc.next())
+        {
+            tokens.add(token);
+        }
+        m.end("scan");
+        m.setTokenCount(tokens.size());
+
+        m.begin();
+        Parser parser = new Parser(new TokenListScanner(tokens));
+        Program program = parser.parseProgram();
+        m.end("parse");
+        m.setNodeCount(parser.getNodeCount());
+
+        m.begin();
+        program = program.optimize();
+        m.end("optimize");
+
+        m.begin();
+        Emitter e = newEmitter(outputFile(input));
+        program.compile(e);
+        m.end("compile");
+        m.setInstructionCount(e.getInstructionCount());
+        return m;
+    }
+
+    /**
+     * Compiles the program read by a parser. In streaming mode it is compiled while it is
+     * parsed; otherwise it is parsed first and compiled by a Linker if there is a cache,
+     * by a ParallelCompiler in parallel code generation mode, or all at once otherwise
+     * @param parser the parser of the program
+     * @param output the file the code is written to
+     * @throws IOException if the cache cannot be read or written
+     */
+    private void compile(Parser parser, Path output) throws IOException
+    {
+        if (streaming)
+        {
+            Emitter e = newEmitter(output);
+            e.setStreaming(true);
+            parser.compileProgram(e);
+            return;
+        }
+        parser.setRecordSource(cache != null);
+        Program program = parallelParsing ? parser.parseProgramParallel() : parser.parseProgram();
+        program = program.optimize();
+        if (cache != null)
+        {
+            new Linker(cache, registerAllocation, release).link(program, output.toString());
+            return;
+        }
+        if (parallelCodegen)
+        {
+            new ParallelCompiler(registerAllocation, release).compile(program, output.toString());
+            return;
+        }
+        program.compile(newEmitter(output));
+    }
+
+    /**
+     * Creates an Emitter with the options of the BatchCompiler
+     * @param output the file the code is written to
+     * @return the Emitter
+     */
+    private Emitter newEmitter(Path output)
+    {
+        Emitter e = new Emitter(output.toString());
+        e.setRegisterAllocation(registerAllocation);
+        e.setRelease(release);
+        e.setPeephole(peephole);
+        return e;
+    }
+
+    /**
+     * Compiles the program in a file, catching the exception if it fails
+     * @param input the file containing the program
+     * @return null if the program was compiled, or a description of the exception that stopped it
+     */
+    private String tryCompile(Path input)
+    {
+        try
+        {
+            compile(input);
+            return null;
+        }
+        catch (IOException | ScanErrorException | RuntimeException e)
+        {
+            return e.toString();
+        }
+    }
+
+    /**
+     * Compiles every file on a pool of threads and waits for all of them to finish
+     * @param inputs the files containing the programs
+     * @param threads the number of programs compiled at the same time
+     * @return the error message of every file that failed to compile, by file
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws ExecutionException if a task was cancelled or failed with an Error
+     */
+    public Map<Path, String> compileAll(List<Path> inputs, int threads)
+            throws InterruptedException, ExecutionException
+    {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+            for (Path input: inputs)
+            {
+                tasks.add(() -> tryCompile(input));
+            }
+            List<Future<String>> results = pool.invokeAll(tasks);
+            Map<Path, String> errors = new LinkedHashMap<Path, String>();
+            for (int i = 0; i < inputs.size(); i++)
+            {
+                String error = results.get(i).get();
+                if (error != null)
+                {
+                    errors.put(inputs.get(i), error);
+                }
+            }
+            return errors;
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Expands the command line arguments into the files to be compiled
+     * @param name a file, a directory or @ followed by a file listing the files
+     * @param inputs the list the files are added to
+     * @throws IOException if a directory or list cannot be read
+     */
+    private static void addInputs(String name, List<Path> inputs) throws IOException
+    {
+        if (name.startsWith("@"))
+        {
+            for (String line: Files.readAllLines(Paths.get(name.substring(1))))
+            {
+                if (!line.trim().isEmpty())
+                {
+                    inputs.add(Paths.get(line.trim()));
+                }
+            }
+            return;
+        }
+        Path path = Paths.get(name);
+        if (!Files.isDirectory(path))
+        {
+            inputs.add(path);
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "*.{txt,pas}"))
+        {
+            List<Path> sorted = new ArrayList<Path>();
+            for (Path file: files)
+            {
+                if (Files.isRegularFile(file))
+                {
+                    sorted.add(file);
+                }
+            }
+            Collections.sort(sorted);
+            inputs.addAll(sorted);
+        }
+    }
+
+    /**
+     * Compiles every program named on the command line and reports the ones that failed.
+     * Exits with status 1 if any program failed to compile
+     * @param args the options followed by the files, directories and lists to be compiled
+     * @throws IOException if a directory or list cannot be read
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws ExecutionException if a task was cancelled or failed with an Error
+     */
+    public static void main (String[] args)
+            throws IOException, InterruptedException, ExecutionException
+    {
+        boolean registerAllocation = false;
+        boolean release = false;
+        boolean streaming = false;
+        boolean parallelParsing = false;
+        boolean parallelCodegen = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path outputDirectory = null;
+        CompileCache cache = null;
+        Path metricsFile = null;
+        List<Path> inputs = new ArrayList<Path>();
+        for (int i = 0; i < args.length; i++)
+        {
+            switch (args[i])
+            {
+                case "-r":
+                    registerAllocation = true;
+                    break;
+                case "-s":
+                    release = true;
+                    break;
+                case "-m":
+                    streaming = true;
+                    break;
+                case "-p":
+                    parallelParsing = true;
+                    break;
+                case "-g":
+                    parallelCodegen = true;
+                    break;
+                case "-j":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-o":
+                    outputDirectory = Paths.get(args[++i]);
+                    Files.createDirectories(outputDirectory);
+                    break;
+                case "-c":
+                    cache = new CompileCache(Paths.get(args[++i]));
+                    break;
+                case "-t":
+                    metricsFile = Paths.get(args[++i]);
+                    break;
+                default:
+                    addInputs(args[i], inputs);
+                    break;
+            }
+        }
+        if (inputs.isEmpty())
+        {
+            System.err.println("Usage: java driver.BatchCompiler [-r] [-s] [-m] [-p] [-g]"
+                    + " [-j threads] [-o directory] [-c directory] [-t file]"
+                    + " (file | directory | @list)...");
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        BatchCompiler compiler = new BatchCompiler(registerAllocation, release, outputDirectory);
+        compiler.setCache(cache);
+        compiler.setStreaming(streaming);
+        compiler.setParallelParsing(parallelParsing);
+        compiler.setParallelCodegen(parallelCodegen);
+        compiler.setMeasuring(metricsFile != null);
+        Map<Path, String> errors = compiler.compileAll(inputs, threads);
+        long millis = (System.nanoTime() - start) / 1000000;
+        for (Map.Entry<Path, String> error: errors.entrySet())
+        {
+            System.err.println(error.getKey() + ": " + error.getValue());
+        }
+        System.out.println("Compiled " + (inputs.size() - errors.size()) + " of " + inputs.size()
+                + " programs in " + millis + " ms");
+        if (cache != null)
+        {
+            System.out.println("Compile cache: " + cache.getHits() + " hits, "
+                    + cache.getMisses() + " misses; units: " + cache.getUnitHits() + " hits, "
+                    + cache.getUnitMisses() + " misses");
+        }
+        if (metricsFile != null)
+        {
+            List<String> lines = new ArrayList<String>();
+            for (Path input: inputs)
+            {
+                CompileMetrics m = compiler.getMetrics().get(input);
+                if (m != null)
+                {
+                    lines.add(m.toJson());
+                }
+            }
+            Files.write(metricsFile, lines);
+        }
+        if (!errors.isEmpty())
+        {
+            System.exit(1);
+        }
+    }
+}
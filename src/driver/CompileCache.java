@@ -0,0 +1,223 @@
+package driver;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The CompileCache class keeps the code generated for programs in a directory on disk,
+ * so that a program that has not changed since it was last compiled does not have to be
+ * compiled again. The code of a program is stored under a SHA-256 hash of its source,
+ * the compiler version and the options it was compiled with, so changing any of them
+ * gives a different entry. The cache also keeps fragments of code, such as the code of
+ * one procedure, which are counted separately from whole programs.
+ *
+ * Entries are written to a temporary file and then moved into place, so the cache can be
+ * shared by the threads of a BatchCompiler and by several compilers at once.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class CompileCache
+{
+    /**
+     * The version of the code generator. It is part of every key, so it must be changed
+     * whenever the code generated for a program changes
+     */
+    public static final String VERSION = "2026.10.18.2";
+
+    private Path directory;
+    private AtomicInteger hits;
+    private AtomicInteger misses;
+    private AtomicInteger unitHits;
+    private AtomicInteger unitMisses;
+
+    /**
+     * Constructor for a CompileCache stored in a directory, which is created if it does not exist
+     * @param directory the directory of the cache
+     * @throws IOException if the directory cannot be created
+     */
+    public CompileCache(Path directory) throws IOException
+    {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        hits = new AtomicInteger();
+        misses = new AtomicInteger();
+        unitHits = new AtomicInteger();
+        unitMisses = new AtomicInteger();
+    }
+
+    /**
+     * Computes the key of a unit of a program from the text of its source
+     * @param source the source of the unit
+     * @param options a description of the options and everything else the code of the unit
+     *                depends on
+     * @return the hexadecimal SHA-256 hash of the version, the options and the source
+     */
+    public String key(String source, String options)
+    {
+        return key(source.getBytes(StandardCharsets.UTF_8), options);
+    }
+
+    /**
+     * Computes the key of a program
+     * @param source the bytes of the source of the program
+     * @param options a description of the options the program is compiled with
+     * @return the hexadecimal SHA-256 hash of the version, the options and the source
+     */
+    public String key(byte[] source, String options)
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException(e);
+        }
+        digest.update((VERSION + "\n" + options + "\n").getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest(source);
+        StringBuilder key = new StringBuilder();
+        for (byte b: hash)
+        {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16));
+            key.append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Gets the file that holds the entry for a key. Entries are spread over subdirectories
+     * named by the first two digits of their key
+     * @param key the key of the program
+     * @return the file of the entry
+     */
+    private Path entry(String key)
+    {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".asm");
+    }
+
+    /**
+     * Copies the cached code of a program to its output file, if the cache has it.
+     * Counts a hit or a miss
+     * @param key the key of the program
+     * @param output the file the code is written to
+     * @return true if the code was found and copied; otherwise,
+     * false
+     * @throws IOException if the output file cannot be written
+     */
+    public boolean fetch(String key, Path output) throws IOException
+    {
+        Path entry = entry(key);
+        if (!Files.isRegularFile(entry))
+        {
+            misses.incrementAndGet();
+            return false;
+        }
+        Files.copy(entry, output, StandardCopyOption.REPLACE_EXISTING);
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Stores the code of a program that was just compiled
+     * @param key the key of the program
+     * @param output the file the code was written to
+     * @throws IOException if the entry cannot be written
+     */
+    public void store(String key, Path output) throws IOException
+    {
+        store(key, Files.readAllBytes(output));
+    }
+
+    /**
+     * Gets the cached code of a unit. Counts a unit hit or a unit miss
+     * @param key the key of the unit
+     * @return the code of the unit, or null if the cache does not have it
+     * @throws IOException if the entry cannot be read
+     */
+    public String get(String key) throws IOException
+    {
+        Path entry = entry(key);
+        if (!Files.isRegularFile(entry))
+        {
+            unitMisses.incrementAndGet();
+            return null;
+        }
+        unitHits.incrementAndGet();
+        return new String(Files.readAllBytes(entry), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stores the code of a unit that was just compiled
+     * @param key the key of the unit
+     * @param code the code of the unit
+     * @throws IOException if the entry cannot be written
+     */
+    public void put(String key, String code) throws IOException
+    {
+        store(key, code.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes an entry to a temporary file and moves it into place
+     * @param key the key of the entry
+     * @param bytes the contents of the entry
+     * @throws IOException if the entry cannot be written
+     */
+    private void store(String key, byte[] bytes) throws IOException
+    {
+        Path entry = entry(key);
+        Files.createDirectories(entry.getParent());
+        Path temp = Files.createTempFile(entry.getParent(), key, ".tmp");
+        try
+        {
+            Files.write(temp, bytes);
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Gets the number of programs whose code was found in the cache
+     * @return the number of hits
+     */
+    public int getHits()
+    {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of programs that had to be compiled
+     * @return the number of misses
+     */
+    public int getMisses()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of units whose code was found in the cache
+     * @return the number of unit hits
+     */
+    public int getUnitHits()
+    {
+        return unitHits.get();
+    }
+
+    /**
+     * Gets the number of units that had to be compiled
+     * @return the number of unit misses
+     */
+    public int getUnitMisses()
+    {
+        return unitMisses.get();
+    }
+}
@@ -0,0 +1,294 @@
+package driver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CompileMetrics class records how a program was compiled: the wall time and the bytes
+ * allocated by each phase of the compiler, and the number of tokens scanned, nodes parsed and
+ * instructions emitted. The metrics can be written as a JSON object, one per program.
+ *
+ * A phase is measured between a call to begin and a call to end on the thread that runs it.
+ * The allocated bytes come from the ThreadMXBean of the JVM and are -1 if it cannot
+ * measure them.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class CompileMetrics
+{
+    /**
+     * The time and allocation of one phase of the compiler
+     */
+    public static class Phase
+    {
+        private String name;
+        private long nanos;
+        private long allocatedBytes;
+
+        /**
+         * Constructor for objects of class Phase
+         * @param name the name of the phase
+         * @param nanos the wall time of the phase in nanoseconds
+         * @param allocatedBytes the bytes allocated during the phase, or -1 if not measured
+         */
+        public Phase(String name, long nanos, long allocatedBytes)
+        {
+            this.name = name;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Gets the name of the phase
+         * @return the name, such as scan or parse
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Gets the wall time of the phase
+         * @return the time in nanoseconds
+         */
+        public long getNanos()
+        {
+            return nanos;
+        }
+
+        /**
+         * Gets the bytes allocated during the phase
+         * @return the number of bytes, or -1 if they were not measured
+         */
+        public long getAllocatedBytes()
+        {
+            return allocatedBytes;
+        }
+    }
+
+    private String file;
+    private List<Phase> phases;
+    private long tokens;
+    private long nodes;
+    private long instructions;
+    private long start;
+    private long startBytes;
+
+    /**
+     * Constructor for objects of class CompileMetrics
+     * @param file the name of the file containing the program
+     */
+    public CompileMetrics(String file)
+    {
+        this.file = file;
+        phases = new ArrayList<Phase>();
+    }
+
+    /**
+     * Gets the number of bytes the current thread has allocated since it started
+     * @return the number of bytes, or -1 if the JVM cannot measure them
+     */
+    private static long allocatedBytes()
+    {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported()
+                    && threads.isThreadAllocatedMemoryEnabled())
+            {
+                return threads.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Starts measuring a phase
+     */
+    public void begin()
+    {
+        startBytes = allocatedBytes();
+        start = System.nanoTime();
+    }
+
+    /**
+     * Finishes measuring the phase started by the last call to begin
+     * @param name the name of the phase
+     */
+    public void end(String name)
+    {
+        long nanos = System.nanoTime() - start;
+        long bytes = allocatedBytes();
+        phases.add(new Phase(name, nanos, bytes < 0 || startBytes < 0 ? -1 : bytes - startBytes));
+    }
+
+    /**
+     * Gets the name of the file containing the program
+     * @return the name of the file
+     */
+    public String getFile()
+    {
+        return file;
+    }
+
+    /**
+     * Gets the phases that have been measured
+     * @return the phases, in the order they ran
+     */
+    public List<Phase> getPhases()
+    {
+        return phases;
+    }
+
+    /**
+     * Gets a phase by its name
+     * @param name the name of the phase
+     * @return the phase, or null if it has not been measured
+     */
+    public Phase getPhase(String name)
+    {
+        for (Phase phase: phases)
+        {
+            if (phase.getName().equals(name))
+            {
+                return phase;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the wall time of every phase together
+     * @return the time in nanoseconds
+     */
+    public long getTotalNanos()
+    {
+        long total = 0;
+        for (Phase phase: phases)
+        {
+            total += phase.getNanos();
+        }
+        return total;
+    }
+
+    /**
+     * Sets the number of tokens in the program
+     * @param tokens the number of tokens scanned
+     */
+    public void setTokenCount(long tokens)
+    {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Gets the number of tokens in the program
+     * @return the number of tokens scanned
+     */
+    public long getTokenCount()
+    {
+        return tokens;
+    }
+
+    /**
+     * Sets the number of nodes of the tree of the program
+     * @param nodes the number of nodes parsed
+     */
+    public void setNodeCount(long nodes)
+    {
+        this.nodes = nodes;
+    }
+
+    /**
+     * Gets the number of nodes of the tree of the program
+     * @return the number of nodes parsed
+     */
+    public long getNodeCount()
+    {
+        return nodes;
+    }
+
+    /**
+     * Sets the number of instructions in the code of the program
+     * @param instructions the number of MIPS instructions emitted
+     */
+    public void setInstructionCount(long instructions)
+    {
+        this.instructions = instructions;
+    }
+
+    /**
+     * Gets the number of instructions in the code of the program
+     * @return the number of MIPS instructions emitted
+     */
+    public long getInstructionCount()
+    {
+        return instructions;
+    }
+
+    /**
+     * Writes the metrics as a JSON object on one line
+     * @return the JSON text
+     */
+    public String toJson()
+    {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"file\":");
+        appendString(json, file);
+        json.append(",\"tokens\":").append(tokens);
+        json.append(",\"nodes\":").append(nodes);
+        json.append(",\"instructions\":").append(instructions);
+        json.append(",\"totalNanos\":").append(getTotalNanos());
+        json.append(",\"phases\":[");
+        for (int i = 0; i < phases.size(); i++)
+        {
+            Phase phase = phases.get(i);
+            json.append(i == 0 ? "" : ",").append("{\"name\":");
+            appendString(json, phase.getName());
+            json.append(",\"nanos\":").append(phase.getNanos());
+            json.append(",\"allocatedBytes\":").append(phase.getAllocatedBytes()).append('}');
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    /**
+     * Appends a string to JSON text, in quotes and with the characters JSON requires escaped
+     * @param json the JSON text
+     * @param s the string
+     */
+    private static void appendString(StringBuilder json, String s)
+    {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\')
+            {
+                json.append('\\').append(c);
+            }
+            else if (c < ' ')
+            {
+                json.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Describes the metrics
+     * @return the JSON text of the metrics
+     */
+    @Override
+    public String toString()
+    {
+        return toJson();
+    }
+}
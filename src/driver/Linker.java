@@ -0,0 +1,133 @@
+package driver;
+
+import ast.Program;
+import ast.ProcedureDeclaration;
+import emitter.Emitter;
+import java.io.*;
+import java.util.function.Consumer;
+
+/**
+ * The Linker class compiles a program one unit at a time and links the units into one file.
+ * The statement of the program is one unit and every procedure is another. The code of each
+ * unit is kept in a CompileCache under the tokens of the unit, so when one procedure of a
+ * program changes, only that procedure is compiled again and the rest are taken from the cache.
+ *
+ * Each unit is compiled by its own Emitter, with labels that start with the label of its
+ * procedure, so its code does not depend on the units before it. The key of a unit also
+ * includes everything else its code depends on: the options, the global variables, which
+ * decide whether a name in a procedure is global, and the parameters of every procedure.
+ * The data section is generated every time, since it only lists the global variables.
+ *
+ * The program must have been parsed by a Parser that records the source.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class Linker
+{
+    private CompileCache cache;
+    private boolean registerAllocation;
+    private boolean release;
+
+    /**
+     * Constructor for objects of class Linker
+     * @param cache the cache that the code of the units is kept in
+     * @param registerAllocation true to compile with register allocation, false to use the stack
+     * @param release true to leave the comment lines out of the code
+     */
+    public Linker(CompileCache cache, boolean registerAllocation, boolean release)
+    {
+        this.cache = cache;
+        this.registerAllocation = registerAllocation;
+        this.release = release;
+    }
+
+    /**
+     * Creates an Emitter with the options of the Linker
+     * @param output the name of the output file, or null for an Emitter whose code is taken
+     * @return the Emitter
+     */
+    private Emitter newEmitter(String output)
+    {
+        Emitter e = new Emitter(output);
+        e.setRegisterAllocation(registerAllocation);
+        e.setRelease(release);
+        e.setPeephole(true);
+        return e;
+    }
+
+    /**
+     * Describes everything other than its own source that the code of a unit depends on
+     * @param program the program containing the units
+     * @return the description, which is part of the key of every unit
+     */
+    private String context(Program program)
+    {
+        StringBuilder context = new StringBuilder();
+        context.append("registerAllocation=").append(registerAllocation);
+        context.append(" release=").append(release).append(" peephole=true\nglobals:");
+        for (String name: program.getGlobalNames())
+        {
+            context.append(' ').append(name);
+        }
+        context.append("\nprocedures:");
+        for (ProcedureDeclaration procedure: program.getProcedures())
+        {
+            context.append(' ').append(procedure.getName()).append('/')
+                    .append(procedure.getParams().size());
+        }
+        return context.toString();
+    }
+
+    /**
+     * Gets the code of a unit from the cache, or compiles it and stores it in the cache
+     * @param program the program containing the unit
+     * @param source the tokens of the unit
+     * @param context the description of what the unit depends on
+     * @param prefix the prefix of the labels of the unit
+     * @param compile emits the code of the unit
+     * @return the code of the unit
+     * @throws IOException if the cache cannot be read or written
+     */
+    private String unit(Program program, String source, String context, String prefix,
+            Consumer<Emitter> compile) throws IOException
+    {
+        if (source == null)
+        {
+            throw new IllegalArgumentException("The source of the program was not recorded");
+        }
+        String key = cache.key(source, context + "\nprefix: " + prefix);
+        String code = cache.get(key);
+        if (code == null)
+        {
+            Emitter e = newEmitter(null);
+            program.declare(e);
+            e.beginUnit(prefix);
+            compile.accept(e);
+            code = e.takeCode();
+            cache.put(key, code);
+        }
+        return code;
+    }
+
+    /**
+     * Compiles a program unit by unit, reusing the units found in the cache,
+     * and writes the linked code to a file
+     * @param program the program, which has been optimized
+     * @param output the name of the output file
+     * @throws IOException if the cache cannot be read or written
+     */
+    public void link(Program program, String output) throws IOException
+    {
+        String context = context(program);
+        Emitter e = newEmitter(output);
+        e.append(unit(program, program.getSource(), context, "", program::compileMain));
+        for (ProcedureDeclaration procedure: program.getProcedures())
+        {
+            String prefix = e.procedureLabel(procedure.getName()) + "_";
+            e.append(unit(program, procedure.getSource(), context, prefix, procedure::compile));
+        }
+        program.compileData(e);
+        e.close();
+    }
+}
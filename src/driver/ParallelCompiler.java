@@ -0,0 +1,173 @@
+package driver;
+
+import ast.Block;
+import ast.Program;
+import ast.ProcedureDeclaration;
+import ast.Statement;
+import emitter.Emitter;
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * The ParallelCompiler class compiles the units of a program at the same time and links them
+ * into one file. Every procedure is a unit, and so is every run of BLOCK_UNIT statements of
+ * the block of the program, the first one starting the text section and the last one halting.
+ * A statement of the program that is not a block is one unit.
+ *
+ * Each unit is compiled by its own Emitter on its own ForkJoinTask, with labels that start
+ * with the label of its procedure, or with main and its number for the parts of the block,
+ * so its code does not depend on the units compiled before it or on the threads it ran on.
+ * The code of the units is put together in the order of the program, which makes the file
+ * the same whatever the number of threads.
+ * The tasks run on the ForkJoinPool of the current thread, or on the common pool if it is
+ * not running in one.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class ParallelCompiler
+{
+    /**
+     * The number of statements of the block of the program in each unit
+     */
+    public static final int BLOCK_UNIT = 1000;
+
+    private boolean registerAllocation;
+    private boolean release;
+
+    /**
+     * Constructor for objects of class ParallelCompiler
+     * @param registerAllocation true to compile with register allocation, false to use the stack
+     * @param release true to leave the comment lines out of the code
+     */
+    public ParallelCompiler(boolean registerAllocation, boolean release)
+    {
+        this.registerAllocation = registerAllocation;
+        this.release = release;
+    }
+
+    /**
+     * Creates an Emitter with the options of the ParallelCompiler
+     * @param output the name of the output file, or null for an Emitter whose code is taken
+     * @return the Emitter
+     */
+    private Emitter newEmitter(String output)
+    {
+        Emitter e = new Emitter(output);
+        e.setRegisterAllocation(registerAllocation);
+        e.setRelease(release);
+        e.setPeephole(true);
+        return e;
+    }
+
+    /**
+     * Starts compiling a unit on its own task
+     * @param program the program containing the unit
+     * @param prefix the prefix of the labels of the unit
+     * @param compile emits the code of the unit
+     * @return the task, whose result is the code of the unit
+     */
+    private ForkJoinTask<String> fork(Program program, String prefix, Consumer<Emitter> compile)
+    {
+        return ForkJoinTask.adapt(() ->
+        {
+            Emitter e = newEmitter(null);
+            program.declare(e);
+            e.beginUnit(prefix);
+            compile.accept(e);
+            return e.takeCode();
+        }).fork();
+    }
+
+    /**
+     * Splits the statement of a program into the parts that are compiled as units
+     * @param stmt the statement of the program
+     * @return runs of at most BLOCK_UNIT statements if it is a block, otherwise the statement
+     */
+    private static List<List<Statement>> split(Statement stmt)
+    {
+        List<List<Statement>> parts = new ArrayList<List<Statement>>();
+        if (!(stmt instanceof Block))
+        {
+            parts.add(Collections.singletonList(stmt));
+            return parts;
+        }
+        List<Statement> stmts = ((Block) stmt).getStatements();
+        for (int i = 0; i < stmts.size(); i += BLOCK_UNIT)
+        {
+            parts.add(stmts.subList(i, Math.min(i + BLOCK_UNIT, stmts.size())));
+        }
+        if (parts.isEmpty())
+        {
+            parts.add(stmts);
+        }
+        return parts;
+    }
+
+    /**
+     * Waits for a unit to be compiled. A ForkJoinTask wraps an exception thrown on another
+     * thread in a copy of it, so the original exception is thrown instead
+     * @param task the task compiling the unit
+     * @return the code of the unit
+     */
+    private static String join(ForkJoinTask<String> task)
+    {
+        try
+        {
+            return task.join();
+        }
+        catch (RuntimeException e)
+        {
+            if (e.getCause() != null && e.getCause().getClass() == e.getClass())
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Compiles the units of a program in parallel and writes the linked code to a file
+     * @param program the program, which has been optimized
+     * @param output the name of the output file
+     */
+    public void compile(Program program, String output)
+    {
+        Emitter e = newEmitter(output);
+        List<ForkJoinTask<String>> units = new ArrayList<ForkJoinTask<String>>();
+        List<List<Statement>> parts = split(program.getStatement());
+        for (int i = 0; i < parts.size(); i++)
+        {
+            List<Statement> part = parts.get(i);
+            boolean first = i == 0;
+            boolean last = i == parts.size() - 1;
+            units.add(fork(program, first ? "" : "main" + i + "_", unit ->
+            {
+                if (first)
+                {
+                    program.compileStart(unit);
+                }
+                for (Statement stmt: part)
+                {
+                    stmt.compile(unit);
+                }
+                if (last)
+                {
+                    program.compileHalt(unit);
+                }
+            }));
+        }
+        for (ProcedureDeclaration procedure: program.getProcedures())
+        {
+            String prefix = e.procedureLabel(procedure.getName()) + "_";
+            units.add(fork(program, prefix, procedure::compile));
+        }
+        for (ForkJoinTask<String> unit: units)
+        {
+            e.append(join(unit));
+        }
+        program.compileData(e);
+        e.close();
+    }
+}
@@ -1,54 +1,329 @@
 package emitter;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
 
 /**
- * The Emitter class outputs code to a file one line at a time
+ * The Emitter class outputs code to a file one line at a time.
+ * The lines are collected in memory and the whole file is written with one channel write
+ * when the Emitter is closed. In streaming mode the lines are written whenever enough
+ * of them have been collected instead, so the code of a large program is not all kept in memory.
+ * In release mode comment lines are left out.
+ * When the peephole optimizer is on, each line is parsed into an Instruction and the
+ * Peephole removes redundant instructions before the code is written.
  *
  * @author Gabriel Chai
  * @author Anu Datar
- * @version May 14, 2020
+ * @version October 18, 2026
  */
 public class Emitter
 {
-    private PrintWriter out;
+    private static final String[] REGISTERS = {
+        "$t0", "$t1", "$t2", "$t3", "$t4", "$t5", "$t6", "$t7", "$t8", "$t9",
+        "$s0", "$s1", "$s2", "$s3", "$s4", "$s5", "$s6", "$s7"
+    };
+    private static final String[] ARGUMENTS = {"$a0", "$a1", "$a2", "$a3"};
+
+    private static final int FLUSH_SIZE = 8192;
+    private static final int STREAM_SIZE = 1 << 20;
+
+    private String outputFileName;
+    private StringBuilder out;
+    private List<Instruction> pending;
+    private Map<String, Integer> paramCounts;
     private int labelID;
+    private String labelPrefix;
+    private boolean registerAllocation;
+    private boolean release;
+    private boolean peephole;
+    private boolean streaming;
+    private FileChannel channel;
+    private long instructions;
 
     /**
      * Constructor for objects of class Emitter
-     * creates an emitter for writing to a new file with given name
+     * creates an emitter for writing to a new file with given name.
+     * The file is not created until the emitter is closed
      * @param outputFileName the name of the output file
      */
     public Emitter(String outputFileName)
     {
+        this.outputFileName = outputFileName;
+        out = new StringBuilder(1 << 16);
+        pending = new ArrayList<Instruction>();
+        paramCounts = new HashMap<String, Integer>();
+        labelID = 0;
+        labelPrefix = "";
+    }
+
+    /**
+     * prints one line of code to file (with non-labels indented).
+     * In release mode, a line that is only a comment is not printed
+     * @param code the piece of code to be printed
+     */
+    public void emit(String code)
+    {
+        if (release && code.startsWith("#"))
+            return;
+        if (peephole)
+        {
+            emit(Instruction.parse(code));
+            return;
+        }
+        if (isInstruction(code))
+            instructions++;
+        if (!code.endsWith(":"))
+            out.append('\t');
+        out.append(code).append('\n');
+        if (streaming && out.length() >= STREAM_SIZE)
+        {
+            write();
+        }
+    }
+
+    /**
+     * adds an instruction to the code. When the peephole optimizer is on, the instructions
+     * collected so far are optimized and printed at the next label once enough of them have
+     * been collected, or straight away if there are twice as many
+     * @param ins the instruction to be printed
+     */
+    public void emit(Instruction ins)
+    {
+        if (!peephole)
+        {
+            count(ins);
+            ins.appendTo(out);
+            if (streaming && out.length() >= STREAM_SIZE)
+            {
+                write();
+            }
+            return;
+        }
+        if ((ins.getOp() == MipsOp.LABEL && pending.size() >= FLUSH_SIZE)
+                || pending.size() >= 2 * FLUSH_SIZE)
+        {
+            flush();
+        }
+        pending.add(ins);
+    }
+
+    /**
+     * Optimizes and prints the instructions collected so far. The last jump or branch
+     * and everything after it are kept, in case the label being emitted is its target
+     */
+    private void flush()
+    {
+        int keep = pending.size();
+        for (int i = pending.size() - 1; i >= 0; i--)
+        {
+            MipsOp op = pending.get(i).getOp();
+            if (op == MipsOp.J || op.isBranch())
+            {
+                keep = i;
+                break;
+            }
+            if (!pending.get(i).isNoise())
+            {
+                break;
+            }
+        }
+        List<Instruction> tail = new ArrayList<Instruction>(pending.subList(keep, pending.size()));
+        for (Instruction ins: Peephole.optimize(pending.subList(0, keep)))
+        {
+            count(ins);
+            ins.appendTo(out);
+        }
+        pending = tail;
+        if (streaming && out.length() >= STREAM_SIZE)
+        {
+            write();
+        }
+    }
+
+    /**
+     * Writes the code collected so far to the file, opening the file the first time
+     */
+    private void write()
+    {
+        ByteBuffer bytes = ByteBuffer.wrap(out.toString().getBytes(StandardCharsets.UTF_8));
+        out.setLength(0);
         try
         {
-            out = new PrintWriter(new FileWriter(outputFileName), true);
-            labelID = 0;
+            if (channel == null)
+            {
+                channel = FileChannel.open(Paths.get(outputFileName),
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+            }
+            while (bytes.hasRemaining())
+            {
+                channel.write(bytes);
+            }
         }
-        catch(IOException e)
+        catch (IOException e)
         {
             throw new RuntimeException(e);
         }
     }
 
     /**
-     * prints one line of code to file (with non-labels indented)
-     * @param code the piece of code to be printed
+     * Optimizes and prints every instruction that has not been printed yet
      */
-    public void emit(String code)
+    private void flushAll()
     {
-        if (!code.endsWith(":"))
-            code = "\t" + code;
-        out.println(code);
+        for (Instruction ins: Peephole.optimize(pending))
+        {
+            count(ins);
+            ins.appendTo(out);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Counts an instruction that is printed, if it is a MIPS instruction
+     * @param ins the instruction
+     */
+    private void count(Instruction ins)
+    {
+        if (ins.getOp().getMnemonic() != null)
+        {
+            instructions++;
+        }
+    }
+
+    /**
+     * Checks to see if a line of code that is printed without being parsed starts with the
+     * mnemonic of a MIPS instruction
+     * @param code the line of code
+     * @return true if the line is an instruction; otherwise,
+     * false
+     */
+    private static boolean isInstruction(String code)
+    {
+        int start = 0;
+        while (start < code.length() && Character.isWhitespace(code.charAt(start)))
+        {
+            start++;
+        }
+        int end = start;
+        while (end < code.length() && Character.isLetter(code.charAt(end)))
+        {
+            end++;
+        }
+        if (end == start || (end < code.length() && code.charAt(end) == ':'))
+        {
+            return false;
+        }
+        return MipsOp.forMnemonic(code.substring(start, end)) != null;
+    }
+
+    /**
+     * Gets the number of MIPS instructions printed so far, after the Peephole has removed
+     * the ones it could. Code added with append is not counted
+     * @return the number of instructions, not counting labels, directives, data and comments
+     */
+    public long getInstructionCount()
+    {
+        return instructions;
     }
 
     /**
-     * closes the file.  should be called after all calls to emit.
+     * Gets the code emitted so far and removes it from the Emitter, so that it can be
+     * kept as a fragment and linked into a file later
+     * @return the code emitted since the Emitter was created or the code was last taken
+     */
+    public String takeCode()
+    {
+        flushAll();
+        String code = out.toString();
+        out.setLength(0);
+        return code;
+    }
+
+    /**
+     * Adds code that has already been emitted and optimized, such as a fragment taken
+     * from another Emitter, after the code emitted so far
+     * @param code the lines of code, each ending with a new line
+     */
+    public void append(String code)
+    {
+        flushAll();
+        out.append(code);
+    }
+
+    /**
+     * writes the code to the file with a single channel write and closes it.
+     * In streaming mode only the code that has not been written yet is written.
+     * should be called after all calls to emit.
      */
     public void close()
     {
-        out.close();
+        flushAll();
+        write();
+        try
+        {
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        channel = null;
+    }
+
+    /**
+     * Turns streaming mode on or off. In streaming mode the code is written to the file
+     * whenever about a megabyte of it has been collected, instead of all at once when the
+     * Emitter is closed. It should be set before any code is emitted
+     * @param streaming true to write the code as it is emitted, false to write it when closed
+     */
+    public void setStreaming(boolean streaming)
+    {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Turns release mode on or off. In release mode the comment lines that describe
+     * each instruction are left out of the file
+     * @param release true to leave out comment lines, false to print them
+     */
+    public void setRelease(boolean release)
+    {
+        this.release = release;
+    }
+
+    /**
+     * Turns the peephole optimizer on or off.
+     * It should be set before any code is emitted
+     * @param peephole true to remove redundant instructions, false to print every line
+     */
+    public void setPeephole(boolean peephole)
+    {
+        this.peephole = peephole;
+    }
+
+    /**
+     * Checks to see if the peephole optimizer is on
+     * @return true if redundant instructions are removed; otherwise,
+     * false
+     */
+    public boolean isPeephole()
+    {
+        return peephole;
+    }
+
+    /**
+     * Checks to see if comment lines are left out of the file
+     * @return true if release mode is on; otherwise,
+     * false
+     */
+    public boolean isRelease()
+    {
+        return release;
     }
 
     /**
@@ -71,6 +346,114 @@ public class Emitter
         emit("addu $sp $sp 4\n");
     }
 
+    /**
+     * Turns register allocation on or off. When it is on, expressions are evaluated
+     * directly into the registers $t0-$t9 and $s0-$s7 in Sethi-Ullman order, and
+     * values are only pushed onto the stack when an expression needs more registers than that.
+     * When it is off, every binary operation pushes its first operand onto the stack
+     * @param registerAllocation true to allocate registers, false to use the stack
+     */
+    public void setRegisterAllocation(boolean registerAllocation)
+    {
+        this.registerAllocation = registerAllocation;
+    }
+
+    /**
+     * Checks to see if expressions are compiled with register allocation
+     * @return true if register allocation is on; otherwise,
+     * false
+     */
+    public boolean isRegisterAllocation()
+    {
+        return registerAllocation;
+    }
+
+    /**
+     * Gets the name of an allocatable register
+     * @param index the index of the register, starting at 0 for $t0
+     * @return the name of the register
+     */
+    public String register(int index)
+    {
+        return REGISTERS[index];
+    }
+
+    /**
+     * Gets the number of registers available for evaluating expressions
+     * @return the number of allocatable registers
+     */
+    public int registerCount()
+    {
+        return REGISTERS.length;
+    }
+
+    /**
+     * Gets the name of a register that passes an argument to a procedure
+     * @param index the index of the argument, starting at 0 for $a0
+     * @return the name of the register
+     */
+    public String argument(int index)
+    {
+        return ARGUMENTS[index];
+    }
+
+    /**
+     * Gets the number of arguments passed in registers. The rest are passed on the stack
+     * @return the number of argument registers
+     */
+    public int argumentCount()
+    {
+        return ARGUMENTS.length;
+    }
+
+    /**
+     * Gets the address of a variable in the frame of a procedure. Slot 0 is the return value,
+     * followed by the parameters and the local variables, each one word below the last,
+     * starting one word below $fp
+     * @param slot the slot of the variable
+     * @return the address of the slot relative to $fp
+     */
+    public String frameAddress(int slot)
+    {
+        return -4 * (slot + 1) + "($fp)";
+    }
+
+    /**
+     * Declares a procedure so that calls to it can be compiled before its body is emitted
+     * @param name the name of the procedure
+     * @param paramCount the number of parameters of the procedure
+     */
+    public void declareProcedure(String name, int paramCount)
+    {
+        paramCounts.put(name, paramCount);
+    }
+
+    /**
+     * Gets the number of parameters of a procedure
+     * @param name the name of the procedure
+     * @return the number of parameters
+     * @throws RuntimeException if the procedure has not been declared
+     */
+    public int getParamCount(String name)
+    {
+        Integer count = paramCounts.get(name);
+        if (count == null)
+        {
+            throw new RuntimeException("Procedure " + name + " has not been declared");
+        }
+        return count;
+    }
+
+    /**
+     * Gets the label of the code of a procedure
+     * @param name the name of the procedure
+     * @return the label that calls jump to
+     */
+    public String procedureLabel(String name)
+    {
+        return "proc" + name;
+    }
+
     /**
      * Generates the next label id for if statements and while loops.
      * @return the next label id
@@ -80,4 +463,27 @@ public class Emitter
         labelID++;
         return labelID;
     }
+
+    /**
+     * Starts a unit of code that is compiled on its own and linked with other units later.
+     * The labels of the unit start with a prefix and their ids start again from 1,
+     * so that they do not depend on the code emitted before the unit
+     * @param prefix the prefix of the labels of the unit
+     */
+    public void beginUnit(String prefix)
+    {
+        labelPrefix = prefix;
+        labelID = 0;
+    }
+
+    /**
+     * Gets the name of a label for an if statement or a while loop
+     * @param name the kind of label, such as endif
+     * @param id the label id from nextLabelID
+     * @return the name of the label, starting with the prefix of the current unit
+     */
+    public String label(String name, int id)
+    {
+        return labelPrefix + name + id;
+    }
 }
\ No newline at end of file
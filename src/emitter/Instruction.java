@@ -0,0 +1,270 @@
+package emitter;
+
+/**
+ * The Instruction class describes one line of MIPS assembly: its operation, its operands and
+ * an optional comment at the end of the line. A line that was parsed from text remembers the
+ * text so that it is printed exactly as it was emitted.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class Instruction
+{
+    private static final String[] NONE = new String[0];
+
+    private MipsOp op;
+    private String[] operands;
+    private String comment;
+    private String text;
+    private boolean spaced;
+
+    /**
+     * Constructor for an instruction built from its parts
+     * @param op the operation
+     * @param operands the operands, in the order they are written
+     */
+    public Instruction(MipsOp op, String... operands)
+    {
+        this.op = op;
+        this.operands = operands;
+        comment = null;
+        text = null;
+        spaced = false;
+    }
+
+    /**
+     * Constructor for a line parsed from text
+     * @param op the operation
+     * @param operands the operands, or no operands if the line is not an instruction
+     * @param comment the comment at the end of the line, or null
+     * @param text the text of the line
+     * @param spaced true if a blank line follows the line
+     */
+    private Instruction(MipsOp op, String[] operands, String comment, String text, boolean spaced)
+    {
+        this.op = op;
+        this.operands = operands;
+        this.comment = comment;
+        this.text = text;
+        this.spaced = spaced;
+    }
+
+    /**
+     * Parses a line of MIPS assembly. Leading and trailing white space is ignored when finding
+     * the operation and operands, and a line ending with a new line is followed by a blank line
+     * @param line the line as it was emitted
+     * @return the instruction
+     */
+    public static Instruction parse(String line)
+    {
+        boolean spaced = line.endsWith("\n");
+        String text = spaced ? line.substring(0, line.length() - 1) : line;
+        String code = text.trim();
+        if (code.isEmpty())
+        {
+            return new Instruction(MipsOp.BLANK, NONE, null, text, spaced);
+        }
+        if (code.startsWith("#"))
+        {
+            return new Instruction(MipsOp.COMMENT, NONE, null, text, spaced);
+        }
+        if (code.startsWith("."))
+        {
+            return new Instruction(MipsOp.DIRECTIVE, NONE, null, text, spaced);
+        }
+        if (code.endsWith(":") && code.indexOf(' ') < 0)
+        {
+            return new Instruction(MipsOp.LABEL, new String[] {code.substring(0, code.length() - 1)},
+                    null, text, spaced);
+        }
+        String comment = null;
+        int hash = code.indexOf('#');
+        if (hash >= 0)
+        {
+            comment = code.substring(hash);
+            code = code.substring(0, hash).trim();
+        }
+        String[] words = split(code);
+        MipsOp op = MipsOp.forMnemonic(words[0]);
+        if (op == null || code.indexOf('"') >= 0)
+        {
+            return new Instruction(MipsOp.OTHER, NONE, null, text, spaced);
+        }
+        String[] operands = new String[words.length - 1];
+        System.arraycopy(words, 1, operands, 0, operands.length);
+        return new Instruction(op, operands, comment, text, spaced);
+    }
+
+    /**
+     * Splits the code of an instruction into words separated by spaces, tabs or commas
+     * @param code the code without leading or trailing white space
+     * @return the words
+     */
+    private static String[] split(String code)
+    {
+        String[] words = new String[4];
+        int count = 0;
+        int i = 0;
+        while (i < code.length())
+        {
+            int start = i;
+            while (i < code.length() && !isSeparator(code.charAt(i)))
+            {
+                i++;
+            }
+            if (count == words.length)
+            {
+                String[] more = new String[count * 2];
+                System.arraycopy(words, 0, more, 0, count);
+                words = more;
+            }
+            words[count++] = code.substring(start, i);
+            while (i < code.length() && isSeparator(code.charAt(i)))
+            {
+                i++;
+            }
+        }
+        if (count == words.length)
+        {
+            return words;
+        }
+        String[] result = new String[count];
+        System.arraycopy(words, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Checks to see if a character separates the words of an instruction
+     * @param c the character
+     * @return true if the character is a space, tab or comma; otherwise,
+     * false
+     */
+    private static boolean isSeparator(char c)
+    {
+        return c == ' ' || c == '\t' || c == ',';
+    }
+
+    /**
+     * Gets the operation of the instruction
+     * @return the operation
+     */
+    public MipsOp getOp()
+    {
+        return op;
+    }
+
+    /**
+     * Gets the number of operands
+     * @return the number of operands
+     */
+    public int getOperandCount()
+    {
+        return operands.length;
+    }
+
+    /**
+     * Gets an operand
+     * @param index the position of the operand, starting at 0
+     * @return the operand
+     */
+    public String getOperand(int index)
+    {
+        return operands[index];
+    }
+
+    /**
+     * Gets the name of a label, or the target of a jump or branch
+     * @return the label named by the instruction, or null if it does not name a label
+     */
+    public String getLabel()
+    {
+        if (op == MipsOp.LABEL || op == MipsOp.J || op == MipsOp.JAL)
+        {
+            return operands[0];
+        }
+        if (op.isBranch())
+        {
+            return operands[2];
+        }
+        return null;
+    }
+
+    /**
+     * Checks to see if the line is a comment or a blank line,
+     * which do not change what the program does
+     * @return true if the line is a comment or blank; otherwise,
+     * false
+     */
+    public boolean isNoise()
+    {
+        return op == MipsOp.COMMENT || op == MipsOp.BLANK;
+    }
+
+    /**
+     * Checks to see if a blank line follows the instruction
+     * @return true if a blank line is printed after the instruction; otherwise,
+     * false
+     */
+    public boolean isSpaced()
+    {
+        return spaced;
+    }
+
+    /**
+     * Sets whether a blank line follows the instruction
+     * @param spaced true to print a blank line after the instruction
+     */
+    public void setSpaced(boolean spaced)
+    {
+        this.spaced = spaced;
+    }
+
+    /**
+     * Appends the line to the output, indenting everything but labels
+     * @param out the StringBuilder the code is written to
+     */
+    public void appendTo(StringBuilder out)
+    {
+        if (text != null)
+        {
+            if (!text.endsWith(":"))
+            {
+                out.append('\t');
+            }
+            out.append(text);
+        }
+        else if (op == MipsOp.LABEL)
+        {
+            out.append(operands[0]).append(':');
+        }
+        else
+        {
+            out.append('\t').append(op.getMnemonic());
+            for (String operand: operands)
+            {
+                out.append(' ').append(operand);
+            }
+            if (comment != null)
+            {
+                out.append(' ').append(comment);
+            }
+        }
+        out.append('\n');
+        if (spaced)
+        {
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Gets the text of the instruction as it is printed
+     * @return the line of MIPS assembly
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder s = new StringBuilder();
+        appendTo(s);
+        return s.toString().trim();
+    }
+}
@@ -0,0 +1,115 @@
+package emitter;
+
+import java.util.*;
+
+/**
+ * The MipsOp enum lists the MIPS instructions that the compiler emits, together with the
+ * kinds of lines that are not instructions: labels, directives, comments and blank lines.
+ * A line that cannot be recognized is kept as OTHER and is never changed by the Peephole.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public enum MipsOp
+{
+    LI("li"),
+    LA("la"),
+    LW("lw"),
+    SW("sw"),
+    MOVE("move"),
+    ADDU("addu"),
+    SUBU("subu"),
+    MULU("mulu"),
+    DIVU("divu"),
+    BEQ("beq"),
+    BNE("bne"),
+    BLT("blt"),
+    BGT("bgt"),
+    BLE("ble"),
+    BGE("bge"),
+    J("j"),
+    JAL("jal"),
+    JR("jr"),
+    SYSCALL("syscall"),
+
+    LABEL(null),
+    DIRECTIVE(null),
+    COMMENT(null),
+    BLANK(null),
+    OTHER(null);
+
+    private static final Map<String, MipsOp> BY_MNEMONIC = new HashMap<String, MipsOp>();
+
+    static
+    {
+        for (MipsOp op: values())
+        {
+            if (op.mnemonic != null)
+            {
+                BY_MNEMONIC.put(op.mnemonic, op);
+            }
+        }
+    }
+
+    private final String mnemonic;
+
+    /**
+     * Constructor for the MIPS operations
+     * @param mnemonic the name of the instruction, or null if the line is not an instruction
+     */
+    MipsOp(String mnemonic)
+    {
+        this.mnemonic = mnemonic;
+    }
+
+    /**
+     * Gets the name of the instruction as it is written in MIPS assembly
+     * @return the mnemonic, or null if the line is not an instruction
+     */
+    public String getMnemonic()
+    {
+        return mnemonic;
+    }
+
+    /**
+     * Gets the operation with a mnemonic
+     * @param mnemonic the name of the instruction
+     * @return the operation, or null if no instruction has that name
+     */
+    public static MipsOp forMnemonic(String mnemonic)
+    {
+        return BY_MNEMONIC.get(mnemonic);
+    }
+
+    /**
+     * Checks to see if the operation is a conditional branch
+     * @return true if the operation is beq, bne, blt, bgt, ble or bge; otherwise,
+     * false
+     */
+    public boolean isBranch()
+    {
+        return compareTo(BEQ) >= 0 && compareTo(BGE) <= 0;
+    }
+
+    /**
+     * Checks to see if the operation is an arithmetic operation
+     * that sets its first operand from the other two
+     * @return true if the operation is addu, subu, mulu or divu; otherwise,
+     * false
+     */
+    public boolean isArithmetic()
+    {
+        return compareTo(ADDU) >= 0 && compareTo(DIVU) <= 0;
+    }
+
+    /**
+     * Checks to see if the line is an instruction, rather than a label, directive,
+     * comment, blank line or unrecognized line
+     * @return true if the line is an instruction; otherwise,
+     * false
+     */
+    public boolean isInstruction()
+    {
+        return mnemonic != null;
+    }
+}
@@ -0,0 +1,496 @@
+package emitter;
+
+import java.util.*;
+
+/**
+ * The Peephole class removes redundant instructions from a list of MIPS instructions.
+ * It repeats three passes until none of them changes the code:
+ *
+ * push/pop collapse: a push of one register followed, within a few instructions that do not
+ * use the stack, by a pop into another register becomes a single move (or nothing at all).
+ *
+ * redundant loads: the value or address each register is known to hold is tracked through
+ * each basic block, so a la, li or lw of something a register already holds is removed,
+ * a lw of a variable that another register holds becomes a move, and a sw of a value the
+ * variable already holds is removed.
+ *
+ * jumps to the next line: a jump or branch to a label that directly follows it is removed.
+ *
+ * Comments and blank lines are ignored by every pass and are kept in the output.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public final class Peephole
+{
+    private static final int WINDOW = 8;
+    private static final int MAX_PASSES = 8;
+
+    /**
+     * Peephole only holds static methods and should not be instantiated
+     */
+    private Peephole()
+    {
+    }
+
+    /**
+     * Optimizes a list of instructions
+     * @param code the instructions in the order they were emitted
+     * @return the optimized instructions
+     */
+    public static List<Instruction> optimize(List<Instruction> code)
+    {
+        for (int pass = 0; pass < MAX_PASSES; pass++)
+        {
+            int size = code.size();
+            code = removeJumpsToNext(removeRedundantLoads(collapsePushPop(code)));
+            if (code.size() == size)
+            {
+                break;
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Replaces a push followed by a pop with a move. The move is placed where the push was
+     * if the instructions in between do not use the popped register, or where the pop was
+     * if they do not change the pushed register
+     * @param code the instructions
+     * @return the instructions with push/pop pairs collapsed
+     */
+    private static List<Instruction> collapsePushPop(List<Instruction> code)
+    {
+        List<Instruction> out = new ArrayList<Instruction>(code.size());
+        int i = 0;
+        while (i < code.size())
+        {
+            String pushed = pushedRegister(code, i);
+            if (pushed == null)
+            {
+                out.add(code.get(i));
+                i++;
+                continue;
+            }
+            int afterPush = next(code, i + 1) + 1;
+            List<Integer> window = new ArrayList<Integer>();
+            int j = next(code, afterPush);
+            String popped = null;
+            while (j < code.size() && window.size() <= WINDOW)
+            {
+                popped = poppedRegister(code, j);
+                if (popped != null || isBarrier(code.get(j)))
+                {
+                    break;
+                }
+                window.add(j);
+                j = next(code, j + 1);
+            }
+            if (popped == null)
+            {
+                out.add(code.get(i));
+                i++;
+                continue;
+            }
+            boolean usesPopped = false;
+            boolean changesPushed = false;
+            for (int k: window)
+            {
+                usesPopped |= reads(code.get(k), popped) || writes(code.get(k), popped);
+                changesPushed |= writes(code.get(k), pushed);
+            }
+            if (usesPopped && changesPushed)
+            {
+                out.add(code.get(i));
+                i++;
+                continue;
+            }
+            int pop = j;
+            int afterPop = next(code, j + 1) + 1;
+            Instruction move = new Instruction(MipsOp.MOVE, popped, pushed);
+            move.setSpaced(true);
+            if (!usesPopped && !popped.equals(pushed))
+            {
+                out.add(move);
+            }
+            for (int k = afterPush; k < pop; k++)
+            {
+                out.add(code.get(k));
+            }
+            if (usesPopped && !popped.equals(pushed))
+            {
+                out.add(move);
+            }
+            for (int k = pop; k < afterPop; k++)
+            {
+                if (code.get(k).isNoise())
+                {
+                    out.add(code.get(k));
+                }
+            }
+            i = afterPop;
+        }
+        return out;
+    }
+
+    /**
+     * Removes loads of values that are already in a register and stores of values that
+     * are already in memory, tracking what each register holds through each basic block.
+     * A register can hold the address of a variable, the value of a variable or a constant
+     * @param code the instructions
+     * @return the instructions without the redundant loads and stores
+     */
+    private static List<Instruction> removeRedundantLoads(List<Instruction> code)
+    {
+        List<Instruction> out = new ArrayList<Instruction>(code.size());
+        Map<String, String> holds = new HashMap<String, String>();
+        for (Instruction ins: code)
+        {
+            MipsOp op = ins.getOp();
+            if (ins.isNoise())
+            {
+                out.add(ins);
+                continue;
+            }
+            if (op == MipsOp.LA || op == MipsOp.LI)
+            {
+                String value = (op == MipsOp.LA ? "&" : "=") + ins.getOperand(1);
+                String reg = ins.getOperand(0);
+                if (value.equals(holds.get(reg)))
+                {
+                    continue;
+                }
+                holds.put(reg, value);
+            }
+            else if (op == MipsOp.LW)
+            {
+                String reg = ins.getOperand(0);
+                String value = variable(holds, ins.getOperand(1));
+                if (value != null && value.equals(holds.get(reg)))
+                {
+                    continue;
+                }
+                String other = value == null ? null : holding(holds, value);
+                holds.remove(reg);
+                if (value != null)
+                {
+                    holds.put(reg, value);
+                }
+                if (other != null)
+                {
+                    ins = copySpacing(ins, new Instruction(MipsOp.MOVE, reg, other));
+                }
+            }
+            else if (op == MipsOp.SW)
+            {
+                String reg = ins.getOperand(0);
+                String value = variable(holds, ins.getOperand(1));
+                if (value != null)
+                {
+                    if (value.equals(holds.get(reg)))
+                    {
+                        continue;
+                    }
+                    holds.values().removeIf(v -> v.equals(value));
+                    holds.put(reg, value);
+                }
+                else if (!isStack(ins.getOperand(1)))
+                {
+                    holds.values().removeIf(v -> v.startsWith("@"));
+                }
+            }
+            else if (op == MipsOp.MOVE)
+            {
+                String reg = ins.getOperand(0);
+                String value = holds.get(ins.getOperand(1));
+                if (reg.equals(ins.getOperand(1)) || (value != null && value.equals(holds.get(reg))))
+                {
+                    continue;
+                }
+                holds.remove(reg);
+                if (value != null)
+                {
+                    holds.put(reg, value);
+                }
+            }
+            else if (op.isArithmetic())
+            {
+                holds.remove(ins.getOperand(0));
+            }
+            else if (op == MipsOp.SYSCALL)
+            {
+                holds.remove("$v0");
+            }
+            else if (!op.isBranch())
+            {
+                holds.clear();
+            }
+            out.add(ins);
+        }
+        return out;
+    }
+
+    /**
+     * Removes jumps and branches to a label that directly follows them,
+     * ignoring comments, blank lines and other labels in between
+     * @param code the instructions
+     * @return the instructions without jumps to the next line
+     */
+    private static List<Instruction> removeJumpsToNext(List<Instruction> code)
+    {
+        List<Instruction> out = new ArrayList<Instruction>(code.size());
+        for (int i = 0; i < code.size(); i++)
+        {
+            Instruction ins = code.get(i);
+            if (ins.getOp() == MipsOp.J || ins.getOp().isBranch())
+            {
+                boolean toNext = false;
+                int j = i + 1;
+                while (j < code.size() && (code.get(j).isNoise()
+                        || code.get(j).getOp() == MipsOp.LABEL))
+                {
+                    toNext |= ins.getLabel().equals(code.get(j).getLabel());
+                    j++;
+                }
+                if (toNext)
+                {
+                    continue;
+                }
+            }
+            out.add(ins);
+        }
+        return out;
+    }
+
+    /**
+     * Gets the register pushed by the instructions starting at an index.
+     * A push is subu $sp $sp 4 followed by sw reg ($sp)
+     * @param code the instructions
+     * @param i the index of the first instruction
+     * @return the pushed register, or null if the instructions are not a push
+     */
+    private static String pushedRegister(List<Instruction> code, int i)
+    {
+        Instruction first = code.get(i);
+        if (first.getOp() != MipsOp.SUBU || !isStackAdjust(first))
+        {
+            return null;
+        }
+        int j = next(code, i + 1);
+        if (j >= code.size())
+        {
+            return null;
+        }
+        Instruction second = code.get(j);
+        if (second.getOp() == MipsOp.SW && second.getOperand(1).equals("($sp)"))
+        {
+            return second.getOperand(0);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the register popped by the instructions starting at an index.
+     * A pop is lw reg ($sp) followed by addu $sp $sp 4
+     * @param code the instructions
+     * @param i the index of the first instruction
+     * @return the popped register, or null if the instructions are not a pop
+     */
+    private static String poppedRegister(List<Instruction> code, int i)
+    {
+        Instruction first = code.get(i);
+        if (first.getOp() != MipsOp.LW || !first.getOperand(1).equals("($sp)"))
+        {
+            return null;
+        }
+        int j = next(code, i + 1);
+        if (j >= code.size())
+        {
+            return null;
+        }
+        Instruction second = code.get(j);
+        if (second.getOp() == MipsOp.ADDU && isStackAdjust(second))
+        {
+            return first.getOperand(0);
+        }
+        return null;
+    }
+
+    /**
+     * Checks to see if an instruction moves the stack pointer by one word
+     * @param ins the instruction
+     * @return true if the instruction is addu or subu $sp $sp 4; otherwise,
+     * false
+     */
+    private static boolean isStackAdjust(Instruction ins)
+    {
+        return ins.getOperandCount() == 3 && ins.getOperand(0).equals("$sp")
+                && ins.getOperand(1).equals("$sp") && ins.getOperand(2).equals("4");
+    }
+
+    /**
+     * Finds the next instruction that is not a comment or a blank line
+     * @param code the instructions
+     * @param i the index to start at
+     * @return the index of the instruction, or the size of the list if there is none
+     */
+    private static int next(List<Instruction> code, int i)
+    {
+        while (i < code.size() && code.get(i).isNoise())
+        {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Checks to see if a push and a pop cannot be collapsed across an instruction,
+     * because it is not an instruction, it transfers control or it uses the stack
+     * @param ins the instruction
+     * @return true if the instruction ends the search for a pop; otherwise,
+     * false
+     */
+    private static boolean isBarrier(Instruction ins)
+    {
+        MipsOp op = ins.getOp();
+        if (!op.isInstruction() || op.isBranch() || op == MipsOp.J || op == MipsOp.JAL
+                || op == MipsOp.JR || op == MipsOp.SYSCALL)
+        {
+            return true;
+        }
+        for (int i = 0; i < ins.getOperandCount(); i++)
+        {
+            if (ins.getOperand(i).contains("$sp"))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks to see if an instruction reads a register
+     * @param ins the instruction
+     * @param reg the register
+     * @return true if the instruction uses the value of the register; otherwise,
+     * false
+     */
+    private static boolean reads(Instruction ins, String reg)
+    {
+        MipsOp op = ins.getOp();
+        if (op == MipsOp.LW)
+        {
+            return reg.equals(base(ins.getOperand(1)));
+        }
+        if (op == MipsOp.SW)
+        {
+            return reg.equals(ins.getOperand(0)) || reg.equals(base(ins.getOperand(1)));
+        }
+        if (op == MipsOp.MOVE)
+        {
+            return reg.equals(ins.getOperand(1));
+        }
+        if (op.isArithmetic())
+        {
+            return reg.equals(ins.getOperand(1)) || reg.equals(ins.getOperand(2));
+        }
+        return op != MipsOp.LI && op != MipsOp.LA;
+    }
+
+    /**
+     * Checks to see if an instruction changes a register
+     * @param ins the instruction
+     * @param reg the register
+     * @return true if the instruction sets the register; otherwise,
+     * false
+     */
+    private static boolean writes(Instruction ins, String reg)
+    {
+        MipsOp op = ins.getOp();
+        if (op == MipsOp.LI || op == MipsOp.LA || op == MipsOp.LW || op == MipsOp.MOVE
+                || op.isArithmetic())
+        {
+            return reg.equals(ins.getOperand(0));
+        }
+        return op != MipsOp.SW;
+    }
+
+    /**
+     * Gets the base register of an address such as ($t0) or 4($sp)
+     * @param address the address operand
+     * @return the base register, or null if the address is a label
+     */
+    private static String base(String address)
+    {
+        int open = address.indexOf('(');
+        if (open < 0 || !address.endsWith(")"))
+        {
+            return null;
+        }
+        return address.substring(open + 1, address.length() - 1);
+    }
+
+    /**
+     * Checks to see if an address is on the stack, so storing to it cannot change a variable
+     * @param address the address operand
+     * @return true if the base of the address is $sp or $fp; otherwise,
+     * false
+     */
+    private static boolean isStack(String address)
+    {
+        String base = base(address);
+        return "$sp".equals(base) || "$fp".equals(base);
+    }
+
+    /**
+     * Gets the variable an address refers to, either by its label or through a register
+     * known to hold the address of the variable
+     * @param holds what each register is known to hold
+     * @param address the address operand
+     * @return @ followed by the label of the variable, or null if the address is not known
+     */
+    private static String variable(Map<String, String> holds, String address)
+    {
+        String base = base(address);
+        if (base == null)
+        {
+            return address.startsWith("$") ? null : "@" + address;
+        }
+        String held = holds.get(base);
+        if (address.startsWith("(") && held != null && held.startsWith("&"))
+        {
+            return "@" + held.substring(1);
+        }
+        return null;
+    }
+
+    /**
+     * Finds a register that is known to hold a value
+     * @param holds what each register is known to hold
+     * @param value the value
+     * @return the register, or null if no register holds the value
+     */
+    private static String holding(Map<String, String> holds, String value)
+    {
+        for (Map.Entry<String, String> entry: holds.entrySet())
+        {
+            if (entry.getValue().equals(value))
+            {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gives a new instruction the same blank line as the instruction it replaces
+     * @param old the instruction being replaced
+     * @param ins the new instruction
+     * @return the new instruction
+     */
+    private static Instruction copySpacing(Instruction old, Instruction ins)
+    {
+        ins.setSpaced(old.isSpaced());
+        return ins;
+    }
+}
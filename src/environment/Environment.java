@@ -4,108 +4,131 @@ import ast.ProcedureDeclaration;
 import java.util.*;
 
 /**
- * The Environment class sets variables to values and stores the variables and
- * sets procedures to a given ProcedureDeclaration and stores them.
+ * The Environment class holds the frames that store the values of the variables
+ * and sets procedures to a given ProcedureDeclaration and stores them.
+ * Variables are resolved to slots before execution, so the global frame and the
+ * frame of the current procedure are accessed by index.
  *
  * @author Gabriel Chai
- * @version April 13, 2020
+ * @version October 18, 2026
  */
 public class Environment
 {
-    private Map<String, Integer> variables;
+    private Frame globals;
+    private Frame locals;
     private Map<String, ProcedureDeclaration> procedures;
-    private Environment parent;
+    private FramePool pool;
+    private Profiler profiler;
 
     /**
      * Constructor for the global environment, which has no parent.
-     * Initializes a HashMap to store the variables and their values and
-     * a HashMap to store the procedures and their declarations.
+     * Initializes an empty global frame, a HashMap to store the procedures
+     * and their declarations, and the pool of frames for procedure calls.
      */
     public Environment ()
     {
-        variables = new HashMap<String, Integer>();
+        globals = new Frame(0);
+        locals = globals;
         procedures = new HashMap<String, ProcedureDeclaration>();
-        parent = null;
+        pool = new FramePool();
     }
 
     /**
      * Constructor for local environments with a parent.
-     * Initializes a HashMap to store the variables and their values and
-     * a HashMap to store the procedures and their declarations.
+     * Shares the global frame, procedures, frame pool and Profiler of the parent and uses
+     * the given frame
+     * for the local variables of a procedure.
      *
      * @param parent the parent environment
+     * @param locals the frame containing the parameters and local variables
      */
-    public Environment (Environment parent)
+    public Environment (Environment parent, Frame locals)
     {
-        variables = new HashMap<String, Integer>();
-        procedures = new HashMap<String, ProcedureDeclaration>();
-        this.parent = parent;
+        globals = parent.globals;
+        this.locals = locals;
+        procedures = parent.procedures;
+        pool = parent.pool;
+        profiler = parent.profiler;
+    }
+
+    /**
+     * Gets a local environment for a call of a procedure, reusing one from the frame pool
+     * if a call with the same frame size has returned
+     * @param size the number of slots in the frame of the procedure
+     * @return the local environment, whose slots are all 0
+     */
+    public Environment enter(int size)
+    {
+        return pool.acquire(this, size);
+    }
+
+    /**
+     * Gives the local environment of a procedure that has returned back to the frame pool.
+     * The environment must not be used after it is released
+     * @param local the local environment of the procedure
+     */
+    public void exit(Environment local)
+    {
+        pool.release(local);
+    }
+
+    /**
+     * Turns profiling on or off. The Profiler is shared with the local environments created
+     * after it is set, so it should be set before the program is run
+     * @param profiler the Profiler that records the statements that run, or null to not profile
+     */
+    public void setProfiler(Profiler profiler)
+    {
+        this.profiler = profiler;
     }
 
     /**
-     * Gets the map of variables stores in the environment
-     * @return the variables in the environment
+     * Gets the Profiler that records the statements that run
+     * @return the Profiler, or null if profiling is off
      */
-    public Map<String, Integer> getVariables()
+    public Profiler getProfiler()
     {
-        return variables;
+        return profiler;
     }
 
     /**
-     * Sets a variable to a given value and stores the variable
-     * @param variable the name of the variable
-     * @param value the value of the variable
+     * Replaces the global frame with a new frame with every global variable set to 0
+     * @param size the number of global variables
      */
-    public void setVariable (String variable, int value)
+    public void allocateGlobals (int size)
     {
-        if (!variables.containsKey(variable)&&parent!=null&&
-                parent.getVariables().containsKey(variable))
-            parent.setVariable(variable, value);
-        else
-            variables.put(variable, value);
+        globals = new Frame(size);
+        locals = globals;
     }
 
     /**
-     * Sets a variable to a given value and stores the variable
-     * @param variable the name of the variable
-     * @param value the value of the variable
+     * Gets the frame containing the global variables
+     * @return the global frame
      */
-    public void declareVariable (String variable, int value)
+    public Frame getGlobals()
     {
-        variables.put(variable, value);
+        return globals;
     }
 
     /**
-     * Gets the value of a variable. If the environment does not contain the variable,
-     * gets the variable from its parent environment.
-     * @param variable the name of the variable
-     * @return the value of the variable
+     * Gets the frame containing the variables of the current procedure.
+     * In the global environment this is the global frame.
+     * @return the local frame
      */
-    public int getVariable (String variable)
+    public Frame getLocals()
     {
-        if (variables.containsKey(variable))
-        {
-            return variables.get(variable);
-        }
-        return parent.getVariable(variable);
+        return locals;
     }
 
     /**
      * Sets a procedure to a given ProcedureDeclaration and stores the procedure.
-     * If it is a local environment, stores it in the parent environment.
+     * The procedures are shared by all environments of a program.
      * @param name the name of the procedure
      * @param dec the ProcedureDeclaration
      */
     public void setProcedure (String name, ProcedureDeclaration dec)
     {
-        if (parent!=null)
-        {
-            parent.setProcedure(name, dec);
-        }
-        else
-        {
-            procedures.put(name, dec);
-        }
+        procedures.put(name, dec);
     }
 
     /**
@@ -115,10 +138,6 @@ public class Environment
      */
     public ProcedureDeclaration getProcedure (String name)
     {
-        if (parent!=null)
-        {
-            return parent.getProcedure(name);
-        }
         return procedures.get(name);
     }
 }
@@ -0,0 +1,85 @@
+package environment;
+
+import java.util.Arrays;
+
+/**
+ * The Frame class stores the values of the variables in one scope of a running program.
+ * Each variable is assigned a slot index during resolution, so values are read and written
+ * by index instead of by name.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class Frame
+{
+    private int[] slots;
+    private boolean tailCall;
+
+    /**
+     * Constructor for objects of class Frame
+     * Every slot starts with a value of 0
+     * @param size the number of variable slots in the frame
+     */
+    public Frame(int size)
+    {
+        slots = new int[size];
+    }
+
+    /**
+     * Gets the value stored in a slot
+     * @param slot the index of the slot
+     * @return the value stored in the slot
+     */
+    public int get(int slot)
+    {
+        return slots[slot];
+    }
+
+    /**
+     * Stores a value in a slot
+     * @param slot the index of the slot
+     * @param value the value to be stored
+     */
+    public void set(int slot, int value)
+    {
+        slots[slot] = value;
+    }
+
+    /**
+     * Sets every slot back to 0 so that the frame can be reused by another call
+     */
+    public void clear()
+    {
+        Arrays.fill(slots, 0);
+        tailCall = false;
+    }
+
+    /**
+     * Records whether the procedure using the frame has ended with a call to itself,
+     * so that its body is run again with the new values in the frame
+     * @param tailCall true if the body should be run again
+     */
+    public void setTailCall(boolean tailCall)
+    {
+        this.tailCall = tailCall;
+    }
+
+    /**
+     * Checks to see if the procedure using the frame ended with a call to itself
+     * @return true if the body should be run again; otherwise,
+     * false
+     */
+    public boolean isTailCall()
+    {
+        return tailCall;
+    }
+
+    /**
+     * Gets the number of slots in the frame
+     * @return the size of the frame
+     */
+    public int size()
+    {
+        return slots.length;
+    }
+}
@@ -0,0 +1,74 @@
+package environment;
+
+import java.util.Arrays;
+
+/**
+ * The FramePool class keeps the local environments of procedures that have returned,
+ * so that later calls can reuse them instead of allocating a new Environment and Frame.
+ * Environments are kept in a separate free list for each frame size. Since calls return
+ * in the reverse order they were made, a recursion of depth n only ever allocates n frames.
+ *
+ * One pool is shared by all environments of one run of a program, so it is not thread safe.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class FramePool
+{
+    private Environment[][] free;
+    private int[] counts;
+
+    /**
+     * Constructor for objects of class FramePool
+     * The pool starts empty
+     */
+    public FramePool()
+    {
+        free = new Environment[8][];
+        counts = new int[8];
+    }
+
+    /**
+     * Gets a local environment whose frame has a given size and every slot set to 0
+     * @param parent the environment of the caller, used if a new environment is needed
+     * @param size the number of slots in the frame
+     * @return a free environment with a cleared frame, or a new one if there is none
+     */
+    public Environment acquire(Environment parent, int size)
+    {
+        if (size < counts.length && counts[size] > 0)
+        {
+            counts[size]--;
+            Environment env = free[size][counts[size]];
+            free[size][counts[size]] = null;
+            env.getLocals().clear();
+            return env;
+        }
+        return new Environment(parent, new Frame(size));
+    }
+
+    /**
+     * Returns a local environment to the pool once its procedure has returned
+     * @param env the environment that is no longer used
+     */
+    public void release(Environment env)
+    {
+        int size = env.getLocals().size();
+        if (size >= counts.length)
+        {
+            int length = Math.max(size + 1, counts.length * 2);
+            free = Arrays.copyOf(free, length);
+            counts = Arrays.copyOf(counts, length);
+        }
+        if (free[size] == null)
+        {
+            free[size] = new Environment[8];
+        }
+        else if (counts[size] == free[size].length)
+        {
+            free[size] = Arrays.copyOf(free[size], counts[size] * 2);
+        }
+        free[size][counts[size]] = env;
+        counts[size]++;
+    }
+}
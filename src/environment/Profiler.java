@@ -0,0 +1,331 @@
+package environment;
+
+import ast.Program;
+import parser.Parser;
+import scanner.ScanErrorException;
+import scanner.Scanner;
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Profiler class records where the time goes while a program is interpreted.
+ * Profiling is turned on by giving an Environment a Profiler before the program is run;
+ * without one, the statements only check that there is no Profiler.
+ *
+ * Each counter has a name, such as the line of a WHILE loop, the procedure of a call or the
+ * variable of an assignment, and counts how many times it ran, how many iterations it made if
+ * it is a loop, and how many nanoseconds it took, including everything it ran. When a statement
+ * runs again inside itself, through a recursive procedure, only the time of the outermost one is
+ * counted, so the time is not counted twice.
+ *
+ * The Profiler also keeps the stack of procedures being called, and adds the time between
+ * calls and returns to the stack that was running, which is written in the collapsed stack
+ * format read by flame graph tools: each line has the procedures from main to the one that
+ * was running, separated by semicolons, followed by the number of nanoseconds.
+ *
+ * Usage:
+ * java environment.Profiler program [stacks]
+ * runs the program with the interpreter and prints the report to the standard error once it
+ * ends, and writes the collapsed stacks to the file stacks if it is given.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class Profiler
+{
+    /**
+     * The counts and time of one counter
+     */
+    private static class Counter
+    {
+        private String name;
+        private long count;
+        private long iterations;
+        private long nanos;
+        private int depth;
+
+        /**
+         * Constructor for objects of class Counter
+         * @param name the name of the counter
+         */
+        private Counter(String name)
+        {
+            this.name = name;
+        }
+    }
+
+    /**
+     * A stack of procedures, which is a node of the tree of every stack that was called
+     */
+    private static class Stack
+    {
+        private String name;
+        private Stack parent;
+        private Map<String, Stack> children;
+        private long nanos;
+
+        /**
+         * Constructor for objects of class Stack
+         * @param name the procedure at the top of the stack
+         * @param parent the stack of the caller, or null for main
+         */
+        private Stack(String name, Stack parent)
+        {
+            this.name = name;
+            this.parent = parent;
+            children = new LinkedHashMap<String, Stack>();
+        }
+    }
+
+    private Map<String, Counter> counters;
+    private Stack root;
+    private Stack current;
+    private long last;
+
+    /**
+     * Constructor for objects of class Profiler
+     * The time of the stack of main starts when the Profiler is created
+     */
+    public Profiler()
+    {
+        counters = new HashMap<String, Counter>();
+        root = new Stack("main", null);
+        current = root;
+        last = System.nanoTime();
+    }
+
+    /**
+     * Gets the counter with a name, creating it the first time
+     * @param name the name of the counter
+     * @return the counter
+     */
+    private Counter counter(String name)
+    {
+        Counter counter = counters.get(name);
+        if (counter == null)
+        {
+            counter = new Counter(name);
+            counters.put(name, counter);
+        }
+        return counter;
+    }
+
+    /**
+     * Gets the name of the procedure that is running
+     * @return the name of the procedure at the top of the stack, or main
+     */
+    public String currentProcedure()
+    {
+        return current.name;
+    }
+
+    /**
+     * Records that a statement is starting to run
+     * @param name the name of the counter of the statement
+     * @return the time to pass to record once the statement has run
+     */
+    public long start(String name)
+    {
+        counter(name).depth++;
+        return System.nanoTime();
+    }
+
+    /**
+     * Records that a statement ran
+     * @param name the name of the counter of the statement
+     * @param start the time returned by start
+     */
+    public void record(String name, long start)
+    {
+        record(name, 0, start);
+    }
+
+    /**
+     * Records that a loop ran
+     * @param name the name of the counter of the loop
+     * @param iterations the number of times the body of the loop ran
+     * @param start the time returned by start
+     */
+    public void record(String name, long iterations, long start)
+    {
+        long nanos = System.nanoTime() - start;
+        Counter counter = counter(name);
+        counter.depth--;
+        counter.count++;
+        counter.iterations += iterations;
+        if (counter.depth == 0)
+        {
+            counter.nanos += nanos;
+        }
+    }
+
+    /**
+     * Records that something ran without timing it
+     * @param name the name of the counter
+     */
+    public void count(String name)
+    {
+        counter(name).count++;
+    }
+
+    /**
+     * Adds the time since the last call or return to the stack that was running
+     */
+    private void tick()
+    {
+        long now = System.nanoTime();
+        current.nanos += now - last;
+        last = now;
+    }
+
+    /**
+     * Records that a procedure is called, pushing it onto the stack
+     * @param procedure the name of the procedure
+     * @param name the name of the counter of the call
+     * @return the time to pass to exit when the procedure returns
+     */
+    public long enter(String procedure, String name)
+    {
+        tick();
+        Stack stack = current.children.get(procedure);
+        if (stack == null)
+        {
+            stack = new Stack(procedure, current);
+            current.children.put(procedure, stack);
+        }
+        current = stack;
+        counter(name).depth++;
+        return last;
+    }
+
+    /**
+     * Records that a procedure has returned, popping it off the stack
+     * @param name the name of the counter of the call
+     * @param start the time returned by enter
+     */
+    public void exit(String name, long start)
+    {
+        tick();
+        current = current.parent;
+        Counter counter = counter(name);
+        counter.depth--;
+        counter.count++;
+        if (counter.depth == 0)
+        {
+            counter.nanos += last - start;
+        }
+    }
+
+    /**
+     * Prints every counter, the one that took the most time first
+     * @param out the stream the report is printed to
+     */
+    public void report(PrintStream out)
+    {
+        tick();
+        List<Counter> sorted = new ArrayList<Counter>(counters.values());
+        sorted.sort((a, b) -> a.nanos != b.nanos ? Long.compare(b.nanos, a.nanos)
+                : a.name.compareTo(b.name));
+        out.printf("%12s %12s %12s  %s%n", "ms", "count", "iterations", "node");
+        for (Counter counter: sorted)
+        {
+            out.printf("%12.3f %12d %12s  %s%n", counter.nanos / 1e6, counter.count,
+                    counter.iterations == 0 ? "" : Long.toString(counter.iterations),
+                    counter.name);
+        }
+    }
+
+    /**
+     * Writes the time of every stack in the collapsed stack format
+     * @param out the writer the stacks are written to
+     */
+    public void writeCollapsed(PrintWriter out)
+    {
+        tick();
+        Deque<Stack> pending = new ArrayDeque<Stack>();
+        pending.push(root);
+        while (!pending.isEmpty())
+        {
+            Stack stack = pending.pop();
+            if (stack.nanos > 0)
+            {
+                out.println(path(stack) + " " + stack.nanos);
+            }
+            List<Stack> children = new ArrayList<Stack>(stack.children.values());
+            for (int i = children.size() - 1; i >= 0; i--)
+            {
+                pending.push(children.get(i));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the time of every stack in the collapsed stack format to a file
+     * @param file the name of the file
+     */
+    public void writeCollapsed(String file)
+    {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file))))
+        {
+            writeCollapsed(out);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Gets the procedures of a stack from main to its top, separated by semicolons
+     * @param stack the stack
+     * @return the names of the procedures
+     */
+    private static String path(Stack stack)
+    {
+        List<String> names = new ArrayList<String>();
+        for (Stack s = stack; s != null; s = s.parent)
+        {
+            names.add(s.name);
+        }
+        Collections.reverse(names);
+        return String.join(";", names);
+    }
+
+    /**
+     * Parses the program in a file and runs it with profiling on. The report is printed
+     * to the standard error when the program ends, even if it fails
+     * @param args the name of the file containing the program, optionally followed by the name
+     *             of the file the collapsed stacks are written to
+     * @throws IOException if the file being scanned does not exist
+     * @throws ScanErrorException if the expected value in the character in the input stream
+     *                            does not match the actual value
+     */
+    public static void main (String[] args) throws IOException, ScanErrorException
+    {
+        Scanner sc = new Scanner(new FileInputStream(new File(args[0])));
+        Program program = new Parser(sc).parseProgram().optimize();
+        Profiler profiler = new Profiler();
+        Environment env = new Environment();
+        env.setProfiler(profiler);
+        try
+        {
+            program.exec(env);
+        }
+        finally
+        {
+            profiler.report(System.err);
+            if (args.length > 1)
+            {
+                profiler.writeCollapsed(args[1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package environment;
+
+import ast.ProcedureDeclaration;
+import java.util.*;
+
+/**
+ * The Scope class assigns frame slot indices to variable names during resolution.
+ * There is one global scope for the program and one local scope for each procedure.
+ * Names are only hashed while resolving; at run time variables are accessed by slot.
+ * The global scope also holds the procedures, so that calls can be bound to their declarations.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class Scope
+{
+    private Map<String, Integer> slots;
+    private List<String> names;
+    private Scope global;
+    private Map<String, ProcedureDeclaration> procedures;
+
+    /**
+     * Constructor for the global scope, which has no parent.
+     */
+    public Scope()
+    {
+        slots = new HashMap<String, Integer>();
+        names = new ArrayList<String>();
+        global = null;
+        procedures = new HashMap<String, ProcedureDeclaration>();
+    }
+
+    /**
+     * Constructor for the local scope of a procedure.
+     * @param global the global scope of the program
+     */
+    public Scope(Scope global)
+    {
+        slots = new HashMap<String, Integer>();
+        names = new ArrayList<String>();
+        this.global = global;
+        procedures = global.procedures;
+    }
+
+    /**
+     * Checks to see if this is the global scope
+     * @return true if the scope has no parent; otherwise,
+     * false
+     */
+    public boolean isGlobal()
+    {
+        return global == null;
+    }
+
+    /**
+     * Declares a variable in this scope. If the variable has already been declared,
+     * its existing slot is kept.
+     * @param name the name of the variable
+     * @return the slot index of the variable
+     */
+    public int declare(String name)
+    {
+        Integer slot = slots.get(name);
+        if (slot == null)
+        {
+            slot = names.size();
+            slots.put(name, slot);
+            names.add(name);
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the slot index of a variable declared in this scope
+     * @param name the name of the variable
+     * @return the slot index of the variable, or -1 if it is not declared in this scope
+     */
+    public int lookup(String name)
+    {
+        Integer slot = slots.get(name);
+        if (slot == null)
+        {
+            return -1;
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the scope that owns a variable. Local variables hide global variables.
+     * A name that is not declared anywhere is declared in this scope, the same way
+     * an assignment to a new name creates a variable in the current environment.
+     * @param name the name of the variable
+     * @return the scope in which the variable is declared
+     */
+    public Scope resolve(String name)
+    {
+        if (lookup(name) < 0 && global != null && global.lookup(name) >= 0)
+        {
+            return global;
+        }
+        declare(name);
+        return this;
+    }
+
+    /**
+     * Declares a procedure so that calls to it can be bound while resolving.
+     * A procedure declared later with the same name replaces the earlier one,
+     * the same way it does in the Environment
+     * @param dec the declaration of the procedure
+     */
+    public void declareProcedure(ProcedureDeclaration dec)
+    {
+        procedures.put(dec.getName(), dec);
+    }
+
+    /**
+     * Gets the declaration of a procedure
+     * @param name the name of the procedure
+     * @return the ProcedureDeclaration, or null if no procedure has the name
+     */
+    public ProcedureDeclaration getProcedure(String name)
+    {
+        return procedures.get(name);
+    }
+
+    /**
+     * Gets the names of the variables in this scope, ordered by slot index
+     * @return the list of variable names
+     */
+    public List<String> getNames()
+    {
+        return names;
+    }
+
+    /**
+     * Gets the number of slots needed for a frame of this scope
+     * @return the number of variables declared in this scope
+     */
+    public int size()
+    {
+        return names.size();
+    }
+}
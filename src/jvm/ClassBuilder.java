@@ -0,0 +1,202 @@
+package jvm;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The ClassBuilder class builds a class file for a compiled program.
+ * Global variables become static int fields, procedures become static int methods
+ * and the statement of the program becomes the static method run.
+ * The class file uses version 49 so that it can be loaded without stack map frames.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class ClassBuilder
+{
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int VERSION = 49;
+
+    private String className;
+    private ConstantPool pool;
+    private List<String> fields;
+    private Map<String, Integer> paramCounts;
+    private ByteArrayOutputStream methods;
+    private int methodCount;
+
+    /**
+     * Constructor for objects of class ClassBuilder
+     * @param className the internal name of the class to be built
+     */
+    public ClassBuilder(String className)
+    {
+        this.className = className;
+        pool = new ConstantPool();
+        fields = new ArrayList<String>();
+        paramCounts = new HashMap<String, Integer>();
+        methods = new ByteArrayOutputStream();
+        methodCount = 0;
+    }
+
+    /**
+     * Gets the internal name of the class
+     * @return the name of the class
+     */
+    public String getClassName()
+    {
+        return className;
+    }
+
+    /**
+     * Gets the constant pool of the class
+     * @return the constant pool
+     */
+    public ConstantPool getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * Adds a static int field for a global variable. Fields are added in slot order
+     * @param name the name of the global variable
+     */
+    public void addField(String name)
+    {
+        fields.add(name);
+    }
+
+    /**
+     * Gets the name of the field of a global variable
+     * @param slot the slot of the global variable
+     * @return the name of the field
+     */
+    public String getField(int slot)
+    {
+        return fields.get(slot);
+    }
+
+    /**
+     * Declares a procedure so that it can be called before its method is built
+     * @param name the name of the procedure
+     * @param paramCount the number of parameters of the procedure
+     */
+    public void declareMethod(String name, int paramCount)
+    {
+        paramCounts.put(name, paramCount);
+    }
+
+    /**
+     * Gets the number of parameters of a declared procedure
+     * @param name the name of the procedure
+     * @return the number of parameters
+     */
+    public int getParamCount(String name)
+    {
+        Integer count = paramCounts.get(name);
+        if (count == null)
+        {
+            throw new RuntimeException("Procedure " + name + " is not declared");
+        }
+        return count;
+    }
+
+    /**
+     * Gets the type descriptor of the method of a procedure, which takes one int
+     * for each parameter and returns an int
+     * @param paramCount the number of parameters
+     * @return the method descriptor
+     */
+    public static String descriptor(int paramCount)
+    {
+        StringBuilder s = new StringBuilder("(");
+        for (int i = 0; i < paramCount; i++)
+        {
+            s.append('I');
+        }
+        return s.append(")I").toString();
+    }
+
+    /**
+     * Adds a public static method whose code has been emitted
+     * @param name the name of the method
+     * @param descriptor the type descriptor of the method
+     * @param code the emitter containing the code of the method
+     */
+    public void addMethod(String name, String descriptor, JvmEmitter code)
+    {
+        byte[] bytes = code.toByteArray();
+        if (bytes.length > 0xFFFF)
+        {
+            throw new RuntimeException("Method " + name + " is larger than 64KB");
+        }
+        try
+        {
+            DataOutputStream out = new DataOutputStream(methods);
+            out.writeShort(ACC_PUBLIC | ACC_STATIC);
+            out.writeShort(pool.utf8(name));
+            out.writeShort(pool.utf8(descriptor));
+            out.writeShort(1);
+            out.writeShort(pool.utf8("Code"));
+            out.writeInt(12 + bytes.length);
+            out.writeShort(code.getMaxStack());
+            out.writeShort(code.getMaxLocals());
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        methodCount++;
+    }
+
+    /**
+     * Builds the class file
+     * @return the bytes of the class file
+     */
+    public byte[] toByteArray()
+    {
+        int thisClass = pool.classRef(className);
+        int superClass = pool.classRef("java/lang/Object");
+        int[] fieldNames = new int[fields.size()];
+        for (int i = 0; i < fieldNames.length; i++)
+        {
+            fieldNames[i] = pool.utf8(fields.get(i));
+        }
+        int intType = pool.utf8("I");
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(pool.getCount());
+            out.write(pool.toByteArray());
+            out.writeShort(ACC_PUBLIC | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(fieldNames.length);
+            for (int name: fieldNames)
+            {
+                out.writeShort(ACC_PUBLIC | ACC_STATIC);
+                out.writeShort(name);
+                out.writeShort(intType);
+                out.writeShort(0);
+            }
+            out.writeShort(methodCount);
+            out.write(methods.toByteArray());
+            out.writeShort(0);
+            return bytes.toByteArray();
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+}
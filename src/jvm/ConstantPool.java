@@ -0,0 +1,219 @@
+package jvm;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The ConstantPool class collects the constants of a class file, such as names,
+ * integers and references to fields and methods. Each constant is only added once.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class ConstantPool
+{
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int CLASS = 7;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    private ByteArrayOutputStream bytes;
+    private DataOutputStream out;
+    private Map<String, Integer> indices;
+    private int count;
+
+    /**
+     * Constructor for objects of class ConstantPool
+     */
+    public ConstantPool()
+    {
+        bytes = new ByteArrayOutputStream();
+        out = new DataOutputStream(bytes);
+        indices = new HashMap<String, Integer>();
+        count = 1;
+    }
+
+    /**
+     * Adds a string constant such as a name or a descriptor
+     * @param value the string
+     * @return the index of the constant
+     */
+    public int utf8(String value)
+    {
+        String key = "U" + value;
+        Integer index = indices.get(key);
+        if (index != null)
+        {
+            return index;
+        }
+        try
+        {
+            out.writeByte(UTF8);
+            out.writeUTF(value);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+        return add(key);
+    }
+
+    /**
+     * Adds an integer constant
+     * @param value the integer
+     * @return the index of the constant
+     */
+    public int integer(int value)
+    {
+        String key = "I" + value;
+        Integer index = indices.get(key);
+        if (index != null)
+        {
+            return index;
+        }
+        write(INTEGER, value >>> 16, value & 0xFFFF);
+        return add(key);
+    }
+
+    /**
+     * Adds a reference to a class
+     * @param name the internal name of the class, such as java/lang/Object
+     * @return the index of the constant
+     */
+    public int classRef(String name)
+    {
+        String key = "C" + name;
+        Integer index = indices.get(key);
+        if (index != null)
+        {
+            return index;
+        }
+        int nameIndex = utf8(name);
+        write(CLASS, nameIndex);
+        return add(key);
+    }
+
+    /**
+     * Adds a reference to a field
+     * @param owner the internal name of the class containing the field
+     * @param name the name of the field
+     * @param descriptor the type descriptor of the field
+     * @return the index of the constant
+     */
+    public int fieldRef(String owner, String name, String descriptor)
+    {
+        return memberRef(FIELD_REF, owner, name, descriptor);
+    }
+
+    /**
+     * Adds a reference to a method
+     * @param owner the internal name of the class containing the method
+     * @param name the name of the method
+     * @param descriptor the type descriptor of the method
+     * @return the index of the constant
+     */
+    public int methodRef(String owner, String name, String descriptor)
+    {
+        return memberRef(METHOD_REF, owner, name, descriptor);
+    }
+
+    /**
+     * Gets the number that the constant_pool_count of the class file should hold,
+     * which is one more than the number of constants
+     * @return the constant pool count
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Gets the encoded constants
+     * @return the bytes of the constant pool
+     */
+    public byte[] toByteArray()
+    {
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Adds a reference to a field or a method
+     * @param tag the tag of the constant
+     * @param owner the internal name of the class containing the member
+     * @param name the name of the member
+     * @param descriptor the type descriptor of the member
+     * @return the index of the constant
+     */
+    private int memberRef(int tag, String owner, String name, String descriptor)
+    {
+        String key = tag + owner + "." + name + ":" + descriptor;
+        Integer index = indices.get(key);
+        if (index != null)
+        {
+            return index;
+        }
+        int classIndex = classRef(owner);
+        int nameAndType = nameAndType(name, descriptor);
+        write(tag, classIndex, nameAndType);
+        return add(key);
+    }
+
+    /**
+     * Adds a name and a type descriptor of a member
+     * @param name the name of the member
+     * @param descriptor the type descriptor of the member
+     * @return the index of the constant
+     */
+    private int nameAndType(String name, String descriptor)
+    {
+        String key = "N" + name + ":" + descriptor;
+        Integer index = indices.get(key);
+        if (index != null)
+        {
+            return index;
+        }
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        write(NAME_AND_TYPE, nameIndex, descriptorIndex);
+        return add(key);
+    }
+
+    /**
+     * Writes a tag followed by two-byte values
+     * @param tag the tag of the constant
+     * @param values the values following the tag
+     */
+    private void write(int tag, int... values)
+    {
+        try
+        {
+            out.writeByte(tag);
+            for (int value: values)
+            {
+                out.writeShort(value);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Records the index of the constant that was just written
+     * @param key the key identifying the constant
+     * @return the index of the constant
+     */
+    private int add(String key)
+    {
+        if (count > 0xFFFF)
+        {
+            throw new RuntimeException("Too many constants in class");
+        }
+        indices.put(key, count);
+        count++;
+        return count - 1;
+    }
+}
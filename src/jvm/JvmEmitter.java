@@ -0,0 +1,457 @@
+package jvm;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The JvmEmitter class emits the JVM instructions of one method of a compiled program.
+ * Global variables are static fields of the class. The variables of a procedure are JVM locals:
+ * the parameters come first, as the JVM requires, followed by the return value in
+ * slot 0 of the procedure and then the other local variables.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class JvmEmitter
+{
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int ILOAD = 0x15;
+    private static final int ISTORE = 0x36;
+    private static final int SWAP = 0x5f;
+    private static final int IADD = 0x60;
+    private static final int ISUB = 0x64;
+    private static final int IMUL = 0x68;
+    private static final int IDIV = 0x6c;
+    private static final int IF_ICMPEQ = 0x9f;
+    private static final int IF_ICMPNE = 0xa0;
+    private static final int IF_ICMPLT = 0xa1;
+    private static final int IF_ICMPGE = 0xa2;
+    private static final int IF_ICMPGT = 0xa3;
+    private static final int IF_ICMPLE = 0xa4;
+    private static final int GOTO = 0xa7;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int GETSTATIC = 0xb2;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int WIDE = 0xc4;
+
+    private ClassBuilder c;
+    private ByteArrayOutputStream code;
+    private int paramCount;
+    private int maxLocals;
+    private int depth;
+    private int maxStack;
+    private List<Integer> labels;
+    private List<int[]> fixups;
+
+    /**
+     * Constructor for objects of class JvmEmitter
+     * @param c the class that the method belongs to
+     * @param paramCount the number of parameters of the method
+     * @param frameSize the number of variable slots of the procedure, or 0 for the program
+     */
+    public JvmEmitter(ClassBuilder c, int paramCount, int frameSize)
+    {
+        this.c = c;
+        this.paramCount = paramCount;
+        maxLocals = Math.max(paramCount, frameSize);
+        code = new ByteArrayOutputStream();
+        depth = 0;
+        maxStack = 0;
+        labels = new ArrayList<Integer>();
+        fixups = new ArrayList<int[]>();
+    }
+
+    /**
+     * Gets the class that the method belongs to
+     * @return the ClassBuilder of the class
+     */
+    public ClassBuilder getClassBuilder()
+    {
+        return c;
+    }
+
+    /**
+     * Creates an emitter for another method of the same class
+     * @param paramCount the number of parameters of the method
+     * @param frameSize the number of variable slots of the procedure
+     * @return the emitter for the new method
+     */
+    public JvmEmitter newMethod(int paramCount, int frameSize)
+    {
+        return new JvmEmitter(c, paramCount, frameSize);
+    }
+
+    /**
+     * Gets the number of parameters of the method
+     * @return the number of parameters
+     */
+    public int getParamCount()
+    {
+        return paramCount;
+    }
+
+    /**
+     * Pushes an integer constant, using the shortest instruction for its value
+     * @param value the integer
+     */
+    public void emitConstant(int value)
+    {
+        if (value >= -1 && value <= 5)
+        {
+            write(ICONST_0 + value);
+        }
+        else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+        {
+            write(BIPUSH);
+            write(value);
+        }
+        else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+        {
+            write(SIPUSH);
+            writeShort(value);
+        }
+        else
+        {
+            int index = c.getPool().integer(value);
+            if (index <= 0xFF)
+            {
+                write(LDC);
+                write(index);
+            }
+            else
+            {
+                write(LDC_W);
+                writeShort(index);
+            }
+        }
+        adjustStack(1);
+    }
+
+    /**
+     * Pushes a variable of the procedure
+     * @param slot the slot of the variable in the procedure's frame
+     */
+    public void emitLoadLocal(int slot)
+    {
+        writeLocal(ILOAD, local(slot));
+        adjustStack(1);
+    }
+
+    /**
+     * Pops a value into a variable of the procedure
+     * @param slot the slot of the variable in the procedure's frame
+     */
+    public void emitStoreLocal(int slot)
+    {
+        writeLocal(ISTORE, local(slot));
+        adjustStack(-1);
+    }
+
+    /**
+     * Pushes a global variable
+     * @param slot the slot of the global variable
+     */
+    public void emitLoadGlobal(int slot)
+    {
+        write(GETSTATIC);
+        writeShort(c.getPool().fieldRef(c.getClassName(), c.getField(slot), "I"));
+        adjustStack(1);
+    }
+
+    /**
+     * Pops a value into a global variable
+     * @param slot the slot of the global variable
+     */
+    public void emitStoreGlobal(int slot)
+    {
+        write(PUTSTATIC);
+        writeShort(c.getPool().fieldRef(c.getClassName(), c.getField(slot), "I"));
+        adjustStack(-1);
+    }
+
+    /**
+     * Pops two values and pushes the result of an arithmetic operation
+     * @param op a String containing the binary operator
+     */
+    public void emitArithmetic(String op)
+    {
+        if (op.equals("+"))
+        {
+            write(IADD);
+        }
+        else if (op.equals("-"))
+        {
+            write(ISUB);
+        }
+        else if (op.equals("*"))
+        {
+            write(IMUL);
+        }
+        else if (op.equals("/"))
+        {
+            write(IDIV);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Unknown operator: " + op);
+        }
+        adjustStack(-1);
+    }
+
+    /**
+     * Pops two values and jumps to a label if the comparison is false
+     * @param relop a String representing the relative operator
+     * @param label the label to jump to
+     */
+    public void emitJumpUnless(String relop, int label)
+    {
+        int op;
+        if (relop.equals("="))
+        {
+            op = IF_ICMPNE;
+        }
+        else if (relop.equals("<>"))
+        {
+            op = IF_ICMPEQ;
+        }
+        else if (relop.equals("<"))
+        {
+            op = IF_ICMPGE;
+        }
+        else if (relop.equals(">"))
+        {
+            op = IF_ICMPLE;
+        }
+        else if (relop.equals("<="))
+        {
+            op = IF_ICMPGT;
+        }
+        else if (relop.equals(">="))
+        {
+            op = IF_ICMPLT;
+        }
+        else
+        {
+            throw new IllegalArgumentException("Unknown relative operator: " + relop);
+        }
+        writeJump(op, label);
+        adjustStack(-2);
+    }
+
+    /**
+     * Pops two values and pushes 1 if the comparison is true, 0 if it is false
+     * @param relop a String representing the relative operator
+     */
+    public void emitCompare(String relop)
+    {
+        int falseLabel = newLabel();
+        int endLabel = newLabel();
+        emitJumpUnless(relop, falseLabel);
+        emitConstant(1);
+        emitJump(endLabel);
+        placeLabel(falseLabel);
+        adjustStack(-1);
+        emitConstant(0);
+        placeLabel(endLabel);
+    }
+
+    /**
+     * Jumps to a label
+     * @param label the label to jump to
+     */
+    public void emitJump(int label)
+    {
+        writeJump(GOTO, label);
+    }
+
+    /**
+     * Creates a new label that has not been placed yet
+     * @return the id of the label
+     */
+    public int newLabel()
+    {
+        labels.add(-1);
+        return labels.size() - 1;
+    }
+
+    /**
+     * Places a label at the current address
+     * @param label the id of the label
+     */
+    public void placeLabel(int label)
+    {
+        labels.set(label, code.size());
+    }
+
+    /**
+     * Pops a value and prints it with System.out.println
+     */
+    public void emitWriteln()
+    {
+        write(GETSTATIC);
+        writeShort(c.getPool().fieldRef("java/lang/System", "out", "Ljava/io/PrintStream;"));
+        adjustStack(1);
+        write(SWAP);
+        write(INVOKEVIRTUAL);
+        writeShort(c.getPool().methodRef("java/io/PrintStream", "println", "(I)V"));
+        adjustStack(-2);
+    }
+
+    /**
+     * Calls the method of a procedure whose arguments have already been pushed
+     * @param name the name of the procedure
+     * @param argCount the number of arguments that were pushed
+     */
+    public void emitCall(String name, int argCount)
+    {
+        write(INVOKESTATIC);
+        writeShort(c.getPool().methodRef(c.getClassName(), name, ClassBuilder.descriptor(argCount)));
+        adjustStack(1 - argCount);
+    }
+
+    /**
+     * Returns from the method
+     * @param value true if the int on top of the stack is returned, false if nothing is returned
+     */
+    public void emitReturn(boolean value)
+    {
+        if (value)
+        {
+            write(IRETURN);
+            adjustStack(-1);
+        }
+        else
+        {
+            write(RETURN);
+        }
+    }
+
+    /**
+     * Gets the largest operand stack used by the method
+     * @return the maximum stack height
+     */
+    public int getMaxStack()
+    {
+        return maxStack;
+    }
+
+    /**
+     * Gets the number of JVM locals used by the method
+     * @return the number of locals
+     */
+    public int getMaxLocals()
+    {
+        return maxLocals;
+    }
+
+    /**
+     * Patches the jumps with the offsets of their labels and gets the code of the method
+     * @return the bytes of the code
+     */
+    public byte[] toByteArray()
+    {
+        byte[] bytes = code.toByteArray();
+        for (int[] fixup: fixups)
+        {
+            int offset = labels.get(fixup[2]) - fixup[0];
+            if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+            {
+                throw new RuntimeException("Jump is too far for a JVM branch instruction");
+            }
+            bytes[fixup[1]] = (byte) (offset >> 8);
+            bytes[fixup[1] + 1] = (byte) offset;
+        }
+        return bytes;
+    }
+
+    /**
+     * Gets the JVM local of a slot of the procedure's frame. The parameters, which are slots
+     * 1 to paramCount, are moved to the front and the return value takes their place
+     * @param slot the slot of the variable in the procedure's frame
+     * @return the index of the JVM local
+     */
+    private int local(int slot)
+    {
+        if (slot == 0)
+        {
+            return paramCount;
+        }
+        if (slot <= paramCount)
+        {
+            return slot - 1;
+        }
+        return slot;
+    }
+
+    /**
+     * Writes a load or a store of a JVM local, using the wide form for large indices
+     * @param op the opcode
+     * @param index the index of the local
+     */
+    private void writeLocal(int op, int index)
+    {
+        if (index > 0xFF)
+        {
+            write(WIDE);
+            write(op);
+            writeShort(index);
+        }
+        else
+        {
+            write(op);
+            write(index);
+        }
+    }
+
+    /**
+     * Writes a jump whose offset is patched when the code is finished
+     * @param op the jump opcode
+     * @param label the label to jump to
+     */
+    private void writeJump(int op, int label)
+    {
+        int address = code.size();
+        write(op);
+        fixups.add(new int[] {address, code.size(), label});
+        writeShort(0);
+    }
+
+    /**
+     * Writes one byte of code
+     * @param value the byte
+     */
+    private void write(int value)
+    {
+        code.write(value);
+    }
+
+    /**
+     * Writes two bytes of code
+     * @param value the value of the bytes
+     */
+    private void writeShort(int value)
+    {
+        code.write(value >> 8);
+        code.write(value);
+    }
+
+    /**
+     * Tracks the height of the operand stack to compute max_stack of the method
+     * @param effect the change in the height of the stack
+     */
+    private void adjustStack(int effect)
+    {
+        depth += effect;
+        if (depth > maxStack)
+        {
+            maxStack = depth;
+        }
+    }
+}
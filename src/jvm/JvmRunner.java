@@ -0,0 +1,81 @@
+package jvm;
+
+import ast.Program;
+import parser.Parser;
+import scanner.*;
+import java.io.*;
+import java.lang.reflect.*;
+
+/**
+ * The JvmRunner class compiles a Program to a JVM class, loads it in the running JVM
+ * and calls its run method, so that the program is compiled to machine code by the JIT.
+ * Each program is loaded by its own class loader, so its global variables start at 0.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class JvmRunner extends ClassLoader
+{
+    private static final String CLASS_NAME = "PascalProgram";
+
+    /**
+     * Constructor for objects of class JvmRunner
+     */
+    public JvmRunner()
+    {
+        super(JvmRunner.class.getClassLoader());
+    }
+
+    /**
+     * Compiles a program and loads its class
+     * @param program the program to be loaded
+     * @return the loaded class
+     */
+    public Class<?> load(Program program)
+    {
+        byte[] bytes = program.compileClass(CLASS_NAME);
+        return defineClass(CLASS_NAME, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Compiles, loads and runs a program
+     * @param program the program to be run
+     */
+    public static void run(Program program)
+    {
+        try
+        {
+            new JvmRunner().load(program).getMethod("run").invoke(null);
+        }
+        catch (InvocationTargetException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error)
+            {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Parses the program in a file and runs it as a JVM class
+     * @param args the name of the file containing the program
+     * @throws IOException if the file being scanned does not exist
+     * @throws ScanErrorException if the expected value in the character in the input stream
+     *                            does not match the actual value
+     */
+    public static void main (String[] args) throws IOException, ScanErrorException
+    {
+        Scanner sc = new Scanner(new FileInputStream(new File(args[0])));
+        Parser p = new Parser(sc);
+        run(p.parseProgram().optimize());
+    }
+}
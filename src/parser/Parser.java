@@ -5,8 +5,11 @@ import scanner.*;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import ast.*;
 import environment.*;
+import emitter.Emitter;
 
 /**
  * parser.Parser is a parser that scans a file or string and
@@ -54,7 +57,11 @@ import environment.*;
 public class Parser
 {
     private Scanner sc;
-    private String currentToken;
+    private Token currentToken;
+    private boolean recordSource;
+    private StringBuilder source;
+    private int nodeCount;
+    private AtomicInteger parallelNodeCount;
 
     /**
      * parser.Parser constructor for constructing a Parser that uses a scanner
@@ -65,34 +72,92 @@ public class Parser
     public Parser (Scanner sc) throws ScanErrorException
     {
         this.sc = sc;
-        currentToken = sc.nextToken();
+        currentToken = sc.next();
+        parallelNodeCount = new AtomicInteger();
     }
 
     /**
-     * If currentToken matches its expected value, gets the next token.
-     * If the currentToken does not match its expected value, ends the execution
+     * Gets the number of nodes of the trees that have been parsed, including the procedures
+     * parsed in parallel, which is used to measure the size of a program
+     * @return the number of statements, expressions, procedures and programs created so far
+     */
+    public int getNodeCount()
+    {
+        return nodeCount + parallelNodeCount.get();
+    }
+
+    /**
+     * Counts a node of the tree being parsed
+     * @param <T> the class of the node
+     * @param node the node that has been created
+     * @return the node
+     */
+    private <T> T node(T node)
+    {
+        nodeCount++;
+        return node;
+    }
+
+    /**
+     * If currentToken is of its expected kind, gets the next token.
+     * If the currentToken is not of its expected kind, throws an exception
+     * giving the line and column of the token
      *
-     * @param token the expected value of the current token
+     * @param kind the expected kind of the current token
+     * @throws IllegalArgumentException if the current token is not of the expected kind,
+     *                                  or if the next token cannot be scanned
      */
-    private void eat(String token)
+    private void eat(TokenKind kind)
     {
+        if (currentToken.getKind() != kind)
+        {
+            throw new IllegalArgumentException("Expected: " + kind + " Found: " + currentToken +
+                    " at " + currentToken.getPosition());
+        }
+        if (source != null)
+        {
+            source.append(currentToken.getText()).append(' ');
+        }
         try
         {
-            if (token.equals(currentToken))
-            {
-                currentToken = sc.nextToken();
-            }
-            else
-            {
-                throw new IllegalArgumentException("Expected: "+currentToken+" Found: "+token);
-            }
+            currentToken = sc.next();
         }
         catch (ScanErrorException e)
         {
-            System.exit(-1);
+            throw new IllegalArgumentException(e.getMessage(), e);
         }
     }
 
+    /**
+     * Turns the recording of the source of each procedure and of the statement of the program
+     * on or off. The tokens are recorded without white space and comments, so that
+     * the procedures can be compiled as units and cached on their source
+     * @param recordSource true to record the tokens, false to parse without recording them
+     */
+    public void setRecordSource(boolean recordSource)
+    {
+        this.recordSource = recordSource;
+    }
+
+    /**
+     * Starts recording the tokens that are eaten, if recording is turned on
+     */
+    private void startSource()
+    {
+        source = recordSource ? new StringBuilder() : null;
+    }
+
+    /**
+     * Stops recording the tokens that are eaten
+     * @return the text of the tokens eaten since startSource, or null if recording is off
+     */
+    private String endSource()
+    {
+        String text = source == null ? null : source.toString();
+        source = null;
+        return text;
+    }
+
     /**
      * Parses the next number in the input stream.
      * @precondition current token is an integer
@@ -101,9 +166,9 @@ public class Parser
      */
     private Number parseNumber()
     {
-        int num = Integer.parseInt(currentToken);
-        eat(currentToken);
-        return new Number(num);
+        int num = currentToken.getValue();
+        eat(TokenKind.NUMBER);
+        return node(new Number(num));
     }
 
     /**
@@ -115,10 +180,23 @@ public class Parser
     public Condition parseCondition()
     {
         Expression exp1 = parseExpression();
-        String relop = currentToken;
-        eat(currentToken);
+        String relop = currentToken.getText();
+        switch (currentToken.getKind())
+        {
+            case EQUAL:
+            case NOT_EQUAL:
+            case LESS:
+            case GREATER:
+            case LESS_EQUAL:
+            case GREATER_EQUAL:
+                eat(currentToken.getKind());
+                break;
+            default:
+                throw new IllegalArgumentException("Expected a relative operator Found: " +
+                        currentToken + " at " + currentToken.getPosition());
+        }
         Expression exp2 = parseExpression();
-        return new Condition(exp1, relop, exp2);
+        return node(new Condition(exp1, relop, exp2));
     }
 
     /**
@@ -129,121 +207,370 @@ public class Parser
      * vars -> vars, id | vars
      * maybeparms -> parms | epsilon
      * parms -> parms, id | id
+     * The variables of the program are resolved to frame slots before it is returned.
+     * If recording is on, each procedure and the program keep the tokens they were parsed from
      * @return the Program that is parsed
      */
     public Program parseProgram()
+    {
+        List<String> variables = parseVariables();
+        List<ProcedureDeclaration> procedures = parseProcedures();
+        startSource();
+        Program program = node(new Program(variables, procedures, parseStatement()));
+        program.setSource(endSource());
+        program.resolve(new Scope());
+        return program;
+    }
+
+    /**
+     * Parses the declarations of the global variables, which follow the production
+     * program -> VAR maybevars; program
+     * maybevars -> vars | epsilon
+     * vars -> vars, id | vars
+     * @return the names of the variables
+     */
+    private List<String> parseVariables()
     {
         List<String> variables = new ArrayList<String>();
-        while (currentToken.equals("VAR"))
+        while (currentToken.getKind() == TokenKind.VAR)
         {
-            eat("VAR");
-            while(!currentToken.equals(";"))
+            eat(TokenKind.VAR);
+            while(currentToken.getKind() != TokenKind.SEMICOLON)
             {
-                variables.add(currentToken);
-                eat(currentToken);
-                if (currentToken.equals(","))
+                variables.add(currentToken.getText());
+                eat(TokenKind.IDENTIFIER);
+                if (currentToken.getKind() == TokenKind.COMMA)
                 {
-                    eat(",");
+                    eat(TokenKind.COMMA);
                 }
             }
-            eat(";");
+            eat(TokenKind.SEMICOLON);
+        }
+        return variables;
+    }
+
+    /**
+     * Parses the declarations of the procedures, which follow the production
+     * programs -> PROCEDURE id(maybeparms); stmt programs
+     * maybeparms -> parms | epsilon
+     * parms -> parms, id | id
+     * @return the procedures, in the order they are declared
+     */
+    private List<ProcedureDeclaration> parseProcedures()
+    {
+        List<ProcedureDeclaration> procedures = new ArrayList<ProcedureDeclaration>();
+        while(currentToken.getKind() == TokenKind.PROCEDURE)
+        {
+            procedures.add(parseProcedure());
+        }
+        return procedures;
+    }
+
+    /**
+     * Parses the declaration of one procedure, which follows the production
+     * PROCEDURE id(maybeparms); stmt
+     * maybeparms -> parms | epsilon
+     * parms -> parms, id | id
+     * @return the procedure that is parsed
+     */
+    private ProcedureDeclaration parseProcedure()
+    {
+        startSource();
+        eat(TokenKind.PROCEDURE);
+        String id = currentToken.getText();
+        eat(TokenKind.IDENTIFIER);
+        List<String> parms = new ArrayList<String>();
+        eat(TokenKind.LEFT_PAREN);
+        while(currentToken.getKind() != TokenKind.RIGHT_PAREN)
+        {
+            parms.add(currentToken.getText());
+            eat(TokenKind.IDENTIFIER);
+            if (currentToken.getKind() == TokenKind.COMMA)
+            {
+                eat(TokenKind.COMMA);
+            }
+        }
+        eat(TokenKind.RIGHT_PAREN);
+        eat(TokenKind.SEMICOLON);
+        ProcedureDeclaration procedure =
+                node(new ProcedureDeclaration(id, parms, parseStatement()));
+        procedure.setSource(endSource());
+        return procedure;
+    }
+
+    /**
+     * Parses a program in the same way as parseProgram, but parses the procedures in parallel.
+     * The tokens of each procedure are found by a pre-scan that does not build any tree:
+     * a procedure ends at the second semicolon that is not inside a BEGIN and END,
+     * the first one ending its header and the second one ending its statement.
+     * Each procedure is then parsed from its tokens by its own ForkJoinTask, while the statement
+     * of the program is parsed on this thread, and the procedures are put back in the order
+     * they are declared. The tasks run on the ForkJoinPool of the current thread,
+     * or on the common pool if it is not running in one.
+     * Scanning is still done on this thread, so only the parsing is shared between the threads
+     * @return the Program that is parsed
+     */
+    public Program parseProgramParallel()
+    {
+        List<String> variables = parseVariables();
+        List<ForkJoinTask<ProcedureDeclaration>> tasks =
+                new ArrayList<ForkJoinTask<ProcedureDeclaration>>();
+        while (currentToken.getKind() == TokenKind.PROCEDURE)
+        {
+            List<Token> tokens = scanProcedure();
+            boolean record = recordSource;
+            tasks.add(ForkJoinTask.adapt(() -> parseProcedure(tokens, record)).fork());
+        }
+        startSource();
+        Statement stmt;
+        try
+        {
+            stmt = parseStatement();
+        }
+        catch (RuntimeException e)
+        {
+            joinAll(tasks);
+            throw e;
         }
+        String text = endSource();
+        List<ProcedureDeclaration> procedures = joinAll(tasks);
+        Program program = node(new Program(variables, procedures, stmt));
+        program.setSource(text);
+        program.resolve(new Scope());
+        return program;
+    }
+
+    /**
+     * Waits for the procedures being parsed in parallel, in the order they are declared,
+     * so that an error in an earlier procedure is reported before an error after it.
+     * A ForkJoinTask wraps an exception thrown on another thread in a copy of it,
+     * so the original exception is thrown instead
+     * @param tasks the tasks parsing the procedures
+     * @return the procedures, in the order they are declared
+     * @throws IllegalArgumentException if a procedure could not be parsed
+     */
+    private static List<ProcedureDeclaration> joinAll(
+            List<ForkJoinTask<ProcedureDeclaration>> tasks)
+    {
         List<ProcedureDeclaration> procedures = new ArrayList<ProcedureDeclaration>();
-        while(currentToken.equals("PROCEDURE"))
+        for (ForkJoinTask<ProcedureDeclaration> task: tasks)
         {
-            eat("PROCEDURE");
-            String id = currentToken;
-            eat(id);
-            List<String> parms = new ArrayList<String>();
-            eat("(");
-            while(!currentToken.equals(")"))
+            try
             {
-                parms.add(currentToken);
-                eat(currentToken);
-                if (currentToken.equals(","))
+                procedures.add(task.join());
+            }
+            catch (IllegalArgumentException e)
+            {
+                if (e.getCause() instanceof IllegalArgumentException)
                 {
-                    eat(",");
+                    throw (IllegalArgumentException) e.getCause();
                 }
+                throw e;
             }
-            eat(")");
-            eat(";");
-            procedures.add(new ProcedureDeclaration(id, parms, parseStatement()));
         }
-        return new Program(variables, procedures, parseStatement());
+        return procedures;
     }
 
     /**
-     * Parses a statement, which follows the production
-     * statement->WRITELN(expression); | BEGIN whilebegin | id:=expression; |
-     *            IF cond THEN statement | WHILE cond DO statement
-     *
-     * @return the statement that is parsed
+     * Scans the tokens of the procedure that starts at the current token, without parsing them.
+     * The procedure ends at the second semicolon that is not between a BEGIN and its END,
+     * or at the end of the file
+     * @return the tokens of the procedure, in order
+     * @throws IllegalArgumentException if the next token cannot be scanned
      */
-    public Statement parseStatement()
+    private List<Token> scanProcedure()
+    {
+        List<Token> tokens = new ArrayList<Token>();
+        int depth = 0;
+        int semicolons = 0;
+        while (semicolons < 2 && currentToken.getKind() != TokenKind.EOF)
+        {
+            TokenKind kind = currentToken.getKind();
+            if (kind == TokenKind.BEGIN)
+            {
+                depth++;
+            }
+            else if (kind == TokenKind.END)
+            {
+                depth--;
+            }
+            else if (kind == TokenKind.SEMICOLON && depth == 0)
+            {
+                semicolons++;
+            }
+            tokens.add(currentToken);
+            try
+            {
+                currentToken = sc.next();
+            }
+            catch (ScanErrorException e)
+            {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Parses the declaration of one procedure from its tokens
+     * @param tokens the tokens of the procedure
+     * @param record true to record the source of the procedure
+     * @return the procedure that is parsed
+     * @throws IllegalArgumentException if the tokens are not a procedure declaration
+     */
+    private ProcedureDeclaration parseProcedure(List<Token> tokens, boolean record)
     {
-        if (currentToken.equals("WRITELN"))
+        Parser parser;
+        try
         {
-            eat("WRITELN");
-            eat("(");
-            Expression exp = parseExpression();
-            eat(")");
-            eat(";");
-            Statement w =  new Writeln(exp);
-            return w;
+            parser = new Parser(new TokenListScanner(tokens));
         }
-        else if (currentToken.equals("BEGIN"))
+        catch (ScanErrorException e)
         {
-            eat("BEGIN");
-            List<Statement> statements = new ArrayList<Statement>();
-            parseWhileBegin(statements);
-            return new Block(statements);
+            throw new IllegalArgumentException(e.getMessage(), e);
         }
-        else if (currentToken.equals("IF"))
+        parser.setRecordSource(record);
+        ProcedureDeclaration procedure = parser.parseProcedure();
+        if (parser.currentToken.getKind() != TokenKind.EOF)
         {
-            eat("IF");
-            Condition cond = parseCondition();
-            eat("THEN");
-            Statement stmt = parseStatement();
-            return new If(cond, stmt);
+            throw new IllegalArgumentException("Unexpected " + parser.currentToken + " at "
+                    + parser.currentToken.getPosition());
         }
-        else if (currentToken.equals("WHILE"))
+        parallelNodeCount.addAndGet(parser.getNodeCount());
+        return procedure;
+    }
+
+    /**
+     * Parses a program and compiles it to MIPS while it is being parsed, without keeping
+     * the tree of the statement of the program. The variables and procedures are parsed first.
+     * If the statement of the program is a block, each statement in it is resolved, optimized
+     * and compiled as soon as it has been parsed, and then dropped, so the memory used depends
+     * on the size of the largest statement instead of the size of the program.
+     * The procedures are resolved after the statement, in the same way as parseProgram,
+     * and are emitted after it. Dead code is not removed, since that needs the whole
+     * statement of the program. The Emitter is closed at the end
+     * @param e the Emitter to output the MIPS instructions
+     */
+    public void compileProgram(Emitter e)
+    {
+        List<String> variables = parseVariables();
+        List<ProcedureDeclaration> procedures = parseProcedures();
+        Program program = node(new Program(variables, procedures, new Block()));
+        Scope globals = new Scope();
+        program.declareGlobals(globals);
+        program.declare(e);
+        program.compileStart(e);
+        if (currentToken.getKind() == TokenKind.BEGIN)
         {
-            eat("WHILE");
-            Condition cond = parseCondition();
-            eat("DO");
-            Statement stmt = parseStatement();
-            Statement whil = new While(cond, stmt);
-            return whil;
+            eat(TokenKind.BEGIN);
+            while (currentToken.getKind() != TokenKind.END)
+            {
+                compileStatement(parseStatement(), globals, e);
+            }
+            eat(TokenKind.END);
+            eat(TokenKind.SEMICOLON);
         }
         else
         {
-            String var = currentToken;
-            eat(var);
-            eat(":=");
-            Statement assign = new Assignment(var, parseExpression());
-            eat(";");
-            return assign;
+            compileStatement(parseStatement(), globals, e);
+        }
+        program.compileHalt(e);
+        program.resolve(globals);
+        for (ProcedureDeclaration procedure: procedures)
+        {
+            procedure.optimize();
+        }
+        program.compileProcedures(e);
+        program.compileData(e);
+        e.close();
+    }
+
+    /**
+     * Resolves, optimizes and compiles one statement of the program
+     * @param stmt the statement
+     * @param globals the global scope of the program
+     * @param e the Emitter to output the MIPS instructions
+     */
+    private void compileStatement(Statement stmt, Scope globals, Emitter e)
+    {
+        stmt.resolve(globals);
+        stmt.optimize().compile(e);
+    }
+
+    /**
+     * Parses a statement, which follows the production
+     * statement->WRITELN(expression); | BEGIN whilebegin | id:=expression; |
+     *            IF cond THEN statement | WHILE cond DO statement
+     *
+     * @return the statement that is parsed
+     */
+    public Statement parseStatement()
+    {
+        switch (currentToken.getKind())
+        {
+            case WRITELN:
+            {
+                eat(TokenKind.WRITELN);
+                eat(TokenKind.LEFT_PAREN);
+                Expression exp = parseExpression();
+                eat(TokenKind.RIGHT_PAREN);
+                eat(TokenKind.SEMICOLON);
+                Statement w =  node(new Writeln(exp));
+                return w;
+            }
+            case BEGIN:
+            {
+                eat(TokenKind.BEGIN);
+                List<Statement> statements = new ArrayList<Statement>();
+                parseWhileBegin(statements);
+                return node(new Block(statements));
+            }
+            case IF:
+            {
+                eat(TokenKind.IF);
+                Condition cond = parseCondition();
+                eat(TokenKind.THEN);
+                Statement stmt = parseStatement();
+                return node(new If(cond, stmt));
+            }
+            case WHILE:
+            {
+                int line = currentToken.getLine();
+                eat(TokenKind.WHILE);
+                Condition cond = parseCondition();
+                eat(TokenKind.DO);
+                Statement stmt = parseStatement();
+                While whil = node(new While(cond, stmt));
+                whil.setLine(line);
+                return whil;
+            }
+            default:
+            {
+                String var = currentToken.getText();
+                eat(TokenKind.IDENTIFIER);
+                eat(TokenKind.ASSIGN);
+                Statement assign = node(new Assignment(var, parseExpression()));
+                eat(TokenKind.SEMICOLON);
+                return assign;
+            }
         }
     }
 
     /**
      * Parsers whilebegin, which follows the production
      * whilebegin -> END; | statement whilebegin
+     * The statements are parsed in a loop, so a block can have any number of statements
      *
      * @param statements the list of statements between BEGIN and END
      */
     private void parseWhileBegin(List<Statement> statements)
     {
-        if (currentToken.equals("END"))
-        {
-            eat("END");
-            eat(";");
-        }
-        else
+        while (currentToken.getKind() != TokenKind.END)
         {
             statements.add(parseStatement());
-            parseWhileBegin(statements);
         }
+        eat(TokenKind.END);
+        eat(TokenKind.SEMICOLON);
     }
 
     /**
@@ -255,118 +582,124 @@ public class Parser
      */
     private Expression parseFactor()
     {
-        if (currentToken.equals("("))
-        {
-            eat("(");
-            Expression exp = parseExpression();
-            eat(")");
-            return exp;
-        }
-        else if (currentToken.equals("-"))
+        switch (currentToken.getKind())
         {
-            eat("-");
-            return new BinOp("-", new Number(0), parseFactor());
-        }
-        else if (Scanner.isLetter(currentToken.charAt(0)))
-        {
-            String id = currentToken;
-            eat(id);
-            if (currentToken.equals("("))
+            case LEFT_PAREN:
+            {
+                eat(TokenKind.LEFT_PAREN);
+                Expression exp = parseExpression();
+                eat(TokenKind.RIGHT_PAREN);
+                return exp;
+            }
+            case MINUS:
             {
-                eat("(");
-                List<Expression> args = new ArrayList<Expression>();
-                while(!currentToken.equals(")"))
+                int negations = 0;
+                while (currentToken.getKind() == TokenKind.MINUS)
                 {
-                    args.add(parseExpression());
-                    if (currentToken.equals(","))
-                    {
-                        eat(",");
-                    }
+                    eat(TokenKind.MINUS);
+                    negations++;
                 }
-                eat(")");
-                return new ProcedureCall(id, args);
+                Expression exp = parseFactor();
+                for (int i = 0; i < negations; i++)
+                {
+                    exp = node(new BinOp("-", node(new Number(0)), exp));
+                }
+                return exp;
             }
-            else
+            case IDENTIFIER:
             {
-                return new Variable(id);
+                String id = currentToken.getText();
+                eat(TokenKind.IDENTIFIER);
+                if (currentToken.getKind() == TokenKind.LEFT_PAREN)
+                {
+                    eat(TokenKind.LEFT_PAREN);
+                    List<Expression> args = new ArrayList<Expression>();
+                    while(currentToken.getKind() != TokenKind.RIGHT_PAREN)
+                    {
+                        args.add(parseExpression());
+                        if (currentToken.getKind() == TokenKind.COMMA)
+                        {
+                            eat(TokenKind.COMMA);
+                        }
+                    }
+                    eat(TokenKind.RIGHT_PAREN);
+                    return node(new ProcedureCall(id, args));
+                }
+                else
+                {
+                    return node(new Variable(id));
+                }
             }
-        }
-        else
-        {
-            return parseNumber();
+            default:
+                return parseNumber();
         }
     }
 
     /**
-     * Parses a term, which follows the production
-     * term -> factor whileterm
-     * @return the value of the term
+     * Gets the precedence of a binary operator
+     * @param kind the kind of the token
+     * @return 2 for * and /, 1 for + and -, or 0 if the token is not a binary operator
      */
-    private Expression parseTerm()
+    private static int precedence(TokenKind kind)
     {
-        Expression factor = parseFactor();
-        return parseWhileTerm(factor);
-    }
-
-    /**
-     * Parses a whileterm, which follows the production
-     * whileterm -> *factor whileterm | /factor whileterm | epsilon
-     * @param factor the factor that precedes the whileexpression
-     * @return the value of the whileterm
-     */
-    private Expression parseWhileTerm(Expression factor)
-    {
-        if (currentToken.equals("*"))
-        {
-            eat("*");
-            Expression exp = new BinOp("*", factor, parseFactor());
-            return parseWhileTerm(exp);
-        }
-        else if (currentToken.equals("/"))
+        switch (kind)
         {
-            eat("/");
-            Expression exp = new BinOp("/", factor, parseFactor());
-            return parseWhileTerm(exp);
+            case TIMES:
+            case DIVIDE:
+                return 2;
+            case PLUS:
+            case MINUS:
+                return 1;
+            default:
+                return 0;
         }
-        return factor;
     }
 
     /**
-     * Parses an expression, which follows the production
+     * Parses an expression, which follows the productions
      * expression -> term whileexpression
+     * whileexpression -> +term whilexpression | -term whileexpression | epsilon
+     * term -> factor whileterm
+     * whileterm -> *factor whileterm | /factor whileterm | epsilon
+     * The operators are parsed by precedence climbing, so a chain of any number of
+     * operators is parsed in a loop, and the operators of each precedence are left associative
      * @return the value of the expression
      */
     private Expression parseExpression()
     {
-        Expression term = parseTerm();
-        return parseWhileExpression(term);
+        return parseOperators(parseFactor(), 1);
     }
 
     /**
-     * Parses a whileexpression, which follows the production
-     * whileexpression -> +term whilexpression | -term whileexpression | epsilon
-     * @param term the term that precedes the whileexpression
-     * @return the value of the whileexpression
+     * Parses the operators that follow an operand, as long as their precedence is at least
+     * a minimum. The right operand of an operator takes the operators after it that have
+     * a higher precedence, so this only recurses once for each level of precedence
+     * @param left the operand before the operators
+     * @param minPrecedence the lowest precedence of an operator that is parsed
+     * @return the expression made of the operand and the operators that follow it
      */
-    private Expression parseWhileExpression(Expression term)
+    private Expression parseOperators(Expression left, int minPrecedence)
     {
-        if (currentToken.equals("+"))
-        {
-            eat("+");
-            Expression exp = new BinOp("+", term, parseTerm());
-            return parseWhileExpression(exp);
-        }
-        else if (currentToken.equals("-"))
+        int precedence = precedence(currentToken.getKind());
+        while (precedence >= minPrecedence)
         {
-            eat("-");
-            Expression exp = new BinOp("-", term, parseTerm());
-            return parseWhileExpression(exp);
+            String op = currentToken.getText();
+            eat(currentToken.getKind());
+            Expression right = parseFactor();
+            int next = precedence(currentToken.getKind());
+            if (next > precedence)
+            {
+                right = parseOperators(right, next);
+                next = precedence(currentToken.getKind());
+            }
+            left = node(new BinOp(op, left, right));
+            precedence = next;
         }
-        return term;
+        return left;
     }
 
     /**
-     * Creates a parser.Parser, which uses a scanner.Scanner that reads a file/string,
+     * Creates a parser.Parser, which uses a scanner.MappedScanner that maps a file,
      * to parse the statements in the file/string using an ast
      * @param args information from the command line
      * @throws IOException if the file being scanned does not exist
@@ -375,12 +708,14 @@ public class Parser
      */
     public static void main (String[] args) throws IOException, ScanErrorException
     {
-        Scanner sc = new Scanner(new FileInputStream(new File ("codegenTest.txt")));
+        Scanner sc = new MappedScanner(new File("codegenTest.txt"));
         Parser p = new Parser(sc);
         Environment env = new Environment();
         while(sc.hasNext())
         {
-            p.parseProgram().compile("codegen.asm");
+            Emitter e = new Emitter("codegen.asm");
+            e.setPeephole(true);
+            p.parseProgram().optimize().compile(e);
         }
     }
 }
@@ -0,0 +1,359 @@
+package scanner;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * scanner.MappedScanner is a scanner that maps a source file into memory and scans its bytes
+ * in place. nextKind() returns each token as a TokenKind together with its offsets in the buffer,
+ * so scanning does not build Strings. Identifiers and numbers are interned in a SymbolTable,
+ * which creates one String per distinct name.
+ *
+ * It recognizes the same tokens as scanner.Scanner, and a period (.) marks the end of the file.
+ *
+ * Usage:
+ * scanner.MappedScanner lex = new scanner.MappedScanner(new File(file_name));
+ * while (lex.nextKind() != TokenKind.EOF) ... lex.getStart(), lex.getLength(), lex.getText()
+ *
+ * It can also be given to a parser.Parser, which calls next() to get Token objects.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class MappedScanner extends Scanner
+{
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private SymbolTable symbols;
+    private TokenKind kind;
+    private int start;
+    private int length;
+    private int symbol;
+    private int line;
+    private int lineStart;
+
+    /**
+     * Constructor for a MappedScanner that maps a file into memory
+     * @param file the file to be scanned
+     * @throws IOException if the file cannot be read
+     */
+    public MappedScanner(File file) throws IOException
+    {
+        this(map(file));
+    }
+
+    /**
+     * Constructor for a MappedScanner that scans the bytes of a buffer,
+     * from its position to its limit
+     * @param buffer the buffer to be scanned
+     */
+    public MappedScanner(ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+        position = buffer.position();
+        limit = buffer.limit();
+        symbols = new SymbolTable();
+        kind = null;
+        symbol = -1;
+        line = 1;
+        lineStart = position;
+    }
+
+    /**
+     * Maps a whole file into memory for reading
+     * @param file the file to be mapped
+     * @return the buffer containing the file
+     * @throws IOException if the file cannot be read
+     */
+    private static MappedByteBuffer map(File file) throws IOException
+    {
+        try (FileChannel channel = new FileInputStream(file).getChannel())
+        {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Skips any leading white space and comments and scans the next token
+     * @return the kind of the token, or TokenKind.EOF at the end of the file
+     * @throws ScanErrorException if there is a character that does not start a token
+     */
+    public TokenKind nextKind() throws ScanErrorException
+    {
+        symbol = -1;
+        skipWhiteSpaceAndComments();
+        start = position;
+        if (!hasNext())
+        {
+            length = 0;
+            kind = TokenKind.EOF;
+            return kind;
+        }
+        char c = (char) buffer.get(position);
+        if (isDigit(c))
+        {
+            while (position < limit && isDigit((char) buffer.get(position)))
+            {
+                position++;
+            }
+            kind = TokenKind.NUMBER;
+        }
+        else if (isLetter(c))
+        {
+            position++;
+            while (position < limit && (isLetter((char) buffer.get(position)) ||
+                    isDigit((char) buffer.get(position))))
+            {
+                position++;
+            }
+            symbol = symbols.lookup(buffer, start, position - start, TokenKind.IDENTIFIER);
+            kind = symbols.getKind(symbol);
+        }
+        else
+        {
+            kind = scanOperand(c);
+        }
+        length = position - start;
+        return kind;
+    }
+
+    /**
+     * Gets the kind of the current token
+     * @return the kind of the token returned by the last call to nextKind()
+     */
+    public TokenKind getKind()
+    {
+        return kind;
+    }
+
+    /**
+     * Gets the offset of the current token in the buffer
+     * @return the position of the first byte of the token
+     */
+    public int getStart()
+    {
+        return start;
+    }
+
+    /**
+     * Gets the length of the current token
+     * @return the number of bytes in the token
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Gets the text of the current token. Identifiers and numbers are interned,
+     * so the same name always gives the same String
+     * @return the text of the token
+     */
+    public String getText()
+    {
+        if (kind.getText() != null)
+        {
+            return kind.getText();
+        }
+        if (symbol < 0)
+        {
+            symbol = symbols.lookup(buffer, start, length, kind);
+        }
+        return symbols.getName(symbol);
+    }
+
+    /**
+     * Gets the line of the current token
+     * @return the line number, starting at 1
+     */
+    public int getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Gets the column of the current token
+     * @return the column number, starting at 1
+     */
+    public int getColumn()
+    {
+        return start - lineStart + 1;
+    }
+
+    /**
+     * Gets the value of the current token, which must be a number
+     * @return the value of the number
+     */
+    public int getValue()
+    {
+        int value = 0;
+        for (int i = start; i < start + length; i++)
+        {
+            value = value * 10 + (buffer.get(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Gets the table of interned names
+     * @return the symbol table of the scanner
+     */
+    public SymbolTable getSymbols()
+    {
+        return symbols;
+    }
+
+    /**
+     * Checks to see if there are any more tokens in the buffer
+     *
+     * @return true if the scanner has not reached the end of the buffer or a period; otherwise,
+     * false
+     */
+    @Override
+    public boolean hasNext()
+    {
+        return position < limit && buffer.get(position) != '.';
+    }
+
+    /**
+     * Scans the next token and returns its text, in the same way as scanner.Scanner.
+     *
+     * @return the text of the token, or "END" at the end of the file
+     * @throws ScanErrorException if there is a character that does not start a token
+     */
+    @Override
+    public String nextToken() throws ScanErrorException
+    {
+        nextKind();
+        return getText();
+    }
+
+    /**
+     * Scans the next token and returns it as a Token, in the same way as scanner.Scanner.
+     *
+     * @return the Token, or a Token of kind EOF at the end of the file
+     * @throws ScanErrorException if there is a character that does not start a token
+     */
+    @Override
+    public Token next() throws ScanErrorException
+    {
+        nextKind();
+        if (kind == TokenKind.NUMBER)
+        {
+            return new Token(kind, getText(), line, getColumn(), getValue());
+        }
+        return new Token(kind, getText(), line, getColumn());
+    }
+
+    /**
+     * Skips white space, single line comments and multi line comments
+     */
+    private void skipWhiteSpaceAndComments()
+    {
+        while (hasNext())
+        {
+            char c = (char) buffer.get(position);
+            if (c == '\n')
+            {
+                position++;
+                line++;
+                lineStart = position;
+            }
+            else if (isWhiteSpace(c))
+            {
+                position++;
+            }
+            else if (c == '/' && position + 1 < limit && buffer.get(position + 1) == '/')
+            {
+                while (hasNext() && buffer.get(position) != '\n')
+                {
+                    position++;
+                }
+            }
+            else if (c == '/' && position + 1 < limit && buffer.get(position + 1) == '*')
+            {
+                position += 2;
+                while (hasNext() && !(buffer.get(position) == '*' && position + 1 < limit &&
+                        buffer.get(position + 1) == '/'))
+                {
+                    if (buffer.get(position) == '\n')
+                    {
+                        line++;
+                        lineStart = position + 1;
+                    }
+                    position++;
+                }
+                if (hasNext())
+                {
+                    position += 2;
+                }
+            }
+            else
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Scans an operand or special character, which may be followed by = or, after <, by >
+     * @param c the first character of the token
+     * @return the kind of the token
+     * @throws ScanErrorException if the character does not start a token
+     */
+    private TokenKind scanOperand(char c) throws ScanErrorException
+    {
+        position++;
+        char after = position < limit ? (char) buffer.get(position) : '\0';
+        switch (c)
+        {
+            case '(': return TokenKind.LEFT_PAREN;
+            case ')': return TokenKind.RIGHT_PAREN;
+            case ';': return TokenKind.SEMICOLON;
+            case ',': return TokenKind.COMMA;
+            case '^': return TokenKind.CARET;
+            default: break;
+        }
+        if (after == '=')
+        {
+            position++;
+            switch (c)
+            {
+                case ':': return TokenKind.ASSIGN;
+                case '+': return TokenKind.PLUS_ASSIGN;
+                case '-': return TokenKind.MINUS_ASSIGN;
+                case '*': return TokenKind.TIMES_ASSIGN;
+                case '/': return TokenKind.DIVIDE_ASSIGN;
+                case '%': return TokenKind.MOD_ASSIGN;
+                case '=': return TokenKind.EQUAL_EQUAL;
+                case '<': return TokenKind.LESS_EQUAL;
+                case '>': return TokenKind.GREATER_EQUAL;
+                default: position--;
+            }
+        }
+        if (c == '<' && after == '>')
+        {
+            position++;
+            return TokenKind.NOT_EQUAL;
+        }
+        switch (c)
+        {
+            case ':': return TokenKind.COLON;
+            case '+': return TokenKind.PLUS;
+            case '-': return TokenKind.MINUS;
+            case '*': return TokenKind.TIMES;
+            case '/': return TokenKind.DIVIDE;
+            case '%': return TokenKind.MOD;
+            case '=': return TokenKind.EQUAL;
+            case '<': return TokenKind.LESS;
+            case '>': return TokenKind.GREATER;
+            default:
+                position--;
+                throw new ScanErrorException("Unrecognized character " + c + " at line " + line
+                        + ", column " + getColumn());
+        }
+    }
+}
@@ -11,7 +11,8 @@ import java.io.*;
  * <p>
  * Usage:
  * <p>
- * nextToken() - to get the next token
+ * next() - to get the next Token, with its kind and position
+ * nextToken() - to get the text of the next token
  * hasNext() - to see if the Scanner has reached the end of the file/string
  * <p>
  * A period (.) marks the end of the file/string.
@@ -28,6 +29,8 @@ public class Scanner
     private BufferedReader in;
     private char currentChar;
     private boolean eof;
+    private int line;
+    private int column;
 
     /**
      * scanner.Scanner constructor for construction of a scanner that
@@ -42,6 +45,8 @@ public class Scanner
     {
         in = new BufferedReader(new InputStreamReader(inStream));
         eof = false;
+        line = 1;
+        column = 0;
         getNextChar();
     }
 
@@ -57,16 +62,36 @@ public class Scanner
     {
         in = new BufferedReader(new StringReader(inString));
         eof = false;
+        line = 1;
+        column = 0;
         getNextChar();
     }
 
 
     /**
-     * Reads the next character in the input stream.
+     * scanner.Scanner constructor for subclasses that read their input another way
+     * and override nextToken() and hasNext().
+     */
+    protected Scanner()
+    {
+        eof = true;
+    }
+
+    /**
+     * Reads the next character in the input stream and updates the line and column.
      * If the character is a period, it is the end of the file/string.
      */
     private void getNextChar()
     {
+        if (currentChar == '\n')
+        {
+            line++;
+            column = 1;
+        }
+        else
+        {
+            column++;
+        }
         try
         {
             int inp = in.read();
@@ -115,13 +140,25 @@ public class Scanner
 
     /**
      * Skips any leading white space and comments and scans the next token of the input stream.
-     * If no lexeme is found, then ends the execution.
      *
-     * @return the lexeme found in the input stream.
+     * @return the text of the token found in the input stream.
      * If the input stream has reached the end of the file, outputs "END"
-     * @throws ScanErrorException if currentChar does not match its expected value
+     * @throws ScanErrorException if there is a character that does not start a token
      */
     public String nextToken() throws ScanErrorException
+    {
+        return next().getText();
+    }
+
+    /**
+     * Skips any leading white space and comments and scans the next token of the input stream.
+     *
+     * @return the Token found in the input stream, with its kind and the line and column
+     * where it starts. If the input stream has reached the end of the file,
+     * returns a Token of kind EOF
+     * @throws ScanErrorException if there is a character that does not start a token
+     */
+    public Token next() throws ScanErrorException
     {
         while (hasNext() && isWhiteSpace(currentChar))
         {
@@ -130,6 +167,8 @@ public class Scanner
 
         while (hasNext() && currentChar == '/')
         {
+            int startLine = line;
+            int startColumn = column;
             eat(currentChar);
             if (currentChar == '/')
             {
@@ -144,11 +183,11 @@ public class Scanner
             else if (currentChar == '=')
             {
                 eat(currentChar);
-                return "/=";
+                return new Token(TokenKind.DIVIDE_ASSIGN, "/=", startLine, startColumn);
             }
             else
             {
-                return "/";
+                return new Token(TokenKind.DIVIDE, "/", startLine, startColumn);
             }
 
             while (hasNext() && isWhiteSpace(currentChar))
@@ -157,32 +196,34 @@ public class Scanner
             }
         }
 
+        int startLine = line;
+        int startColumn = column;
         if (!hasNext())
         {
-            return "END";
+            return new Token(TokenKind.EOF, TokenKind.EOF.getText(), startLine, startColumn);
         }
-        try
+        if (isDigit(currentChar))
         {
-            if (isDigit(currentChar))
-            {
-                return scanNumber();
-            }
-            if (isLetter(currentChar))
-            {
-                return scanIdentifier();
-            }
-            if (isOperand(currentChar))
+            String s = scanNumber();
+            return new Token(TokenKind.NUMBER, s, startLine, startColumn, Integer.parseInt(s));
+        }
+        if (isLetter(currentChar))
+        {
+            String s = scanIdentifier();
+            TokenKind kind = TokenKind.forText(s);
+            if (kind == null)
             {
-                return scanOperand();
+                kind = TokenKind.IDENTIFIER;
             }
-            throw new ScanErrorException("Unrecognized character in input stream");
+            return new Token(kind, s, startLine, startColumn);
         }
-        catch (ScanErrorException e)
+        if (isOperand(currentChar))
         {
-            //eat(currentChar);
-            System.exit(-1);
-            return nextToken();
+            String s = scanOperand();
+            return new Token(TokenKind.forText(s), s, startLine, startColumn);
         }
+        throw new ScanErrorException("Unrecognized character " + currentChar +
+                " at line " + startLine + ", column " + startColumn);
     }
 
     /**
@@ -252,17 +293,17 @@ public class Scanner
      */
     private String scanNumber() throws ScanErrorException
     {
-        String s = "";
-        while (isDigit(currentChar))
+        StringBuilder s = new StringBuilder();
+        while (hasNext() && isDigit(currentChar))
         {
-            s += currentChar;
+            s.append(currentChar);
             eat(currentChar);
         }
         if (s.length() == 0)
         {
             throw new ScanErrorException("No number found.");
         }
-        return s;
+        return s.toString();
     }
 
     /**
@@ -274,10 +315,10 @@ public class Scanner
      */
     private String scanIdentifier() throws ScanErrorException
     {
-        String s = "";
+        StringBuilder s = new StringBuilder();
         if (isLetter(currentChar))
         {
-            s += currentChar;
+            s.append(currentChar);
             eat(currentChar);
         }
         else
@@ -285,12 +326,12 @@ public class Scanner
             throw new ScanErrorException("No identifier found.");
         }
 
-        while (isLetter(currentChar) || isDigit(currentChar))
+        while (hasNext() && (isLetter(currentChar) || isDigit(currentChar)))
         {
-            s += currentChar;
+            s.append(currentChar);
             eat(currentChar);
         }
-        return s;
+        return s.toString();
     }
 
     /**
@@ -301,15 +342,15 @@ public class Scanner
      */
     private String scanOperand() throws ScanErrorException
     {
-        String s = "";
+        StringBuilder s = new StringBuilder();
         char[] operands = {'(', ')', '^', ';', ','};
         for (char c : operands)
         {
             if (c == currentChar)
             {
-                s += currentChar;
+                s.append(currentChar);
                 eat(currentChar);
-                return s;
+                return s.toString();
             }
         }
 
@@ -318,21 +359,21 @@ public class Scanner
         {
             if (c == currentChar)
             {
-                s += currentChar;
+                s.append(currentChar);
                 eat(currentChar);
 
                 if (currentChar == '=')
                 {
-                    s += currentChar;
+                    s.append(currentChar);
                     eat(currentChar);
                 }
                 else if (c == '<' && currentChar == '>')
                 {
-                    s += currentChar;
+                    s.append(currentChar);
                     eat(currentChar);
                 }
 
-                return s;
+                return s.toString();
             }
         }
 
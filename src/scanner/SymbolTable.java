@@ -0,0 +1,209 @@
+package scanner;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The SymbolTable class interns the names and numbers found in a source buffer.
+ * A name is looked up by its bytes, so a String is only created the first time a name is seen
+ * and every later occurrence returns the same String object. The keywords are added first,
+ * using the same String literals as the Parser, and remember their TokenKind.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class SymbolTable
+{
+    private byte[][] bytes;
+    private String[] names;
+    private TokenKind[] kinds;
+    private int[] hashes;
+    private int count;
+
+    /**
+     * Constructor for objects of class SymbolTable
+     * Adds every keyword to the table
+     */
+    public SymbolTable()
+    {
+        bytes = new byte[64][];
+        names = new String[64];
+        kinds = new TokenKind[64];
+        hashes = new int[64];
+        count = 0;
+        for (TokenKind kind: TokenKind.values())
+        {
+            if (kind.isKeyword())
+            {
+                add(kind.getText(), kind);
+            }
+        }
+    }
+
+    /**
+     * Finds the entry for the bytes in a buffer, adding a new entry if there is none
+     * @param buffer the buffer containing the source
+     * @param start the position of the first byte
+     * @param length the number of bytes
+     * @param kind the kind of the new entry if it is added
+     * @return the index of the entry
+     */
+    public int lookup(ByteBuffer buffer, int start, int length, TokenKind kind)
+    {
+        int hash = hash(buffer, start, length);
+        int mask = names.length - 1;
+        int i = hash & mask;
+        while (names[i] != null)
+        {
+            if (hashes[i] == hash && matches(bytes[i], buffer, start, length))
+            {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        byte[] b = new byte[length];
+        for (int j = 0; j < length; j++)
+        {
+            b[j] = buffer.get(start + j);
+        }
+        return insert(b, new String(b, StandardCharsets.ISO_8859_1), kind, hash);
+    }
+
+    /**
+     * Gets the interned String of an entry
+     * @param index the index of the entry
+     * @return the name
+     */
+    public String getName(int index)
+    {
+        return names[index];
+    }
+
+    /**
+     * Gets the kind of an entry, which is the keyword for keywords
+     * @param index the index of the entry
+     * @return the kind of the entry
+     */
+    public TokenKind getKind(int index)
+    {
+        return kinds[index];
+    }
+
+    /**
+     * Gets the number of names in the table
+     * @return the number of entries
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Adds a String to the table
+     * @param name the name to be added
+     * @param kind the kind of the entry
+     */
+    private void add(String name, TokenKind kind)
+    {
+        byte[] b = new byte[name.length()];
+        for (int i = 0; i < b.length; i++)
+        {
+            b[i] = (byte) name.charAt(i);
+        }
+        insert(b, name, kind, hash(ByteBuffer.wrap(b), 0, b.length));
+    }
+
+    /**
+     * Inserts a new entry, growing the table when it is half full
+     * @param b the bytes of the name
+     * @param name the name
+     * @param kind the kind of the entry
+     * @param hash the hash of the bytes
+     * @return the index of the entry
+     */
+    private int insert(byte[] b, String name, TokenKind kind, int hash)
+    {
+        if (2 * (count + 1) > names.length)
+        {
+            grow();
+        }
+        int mask = names.length - 1;
+        int i = hash & mask;
+        while (names[i] != null)
+        {
+            i = (i + 1) & mask;
+        }
+        bytes[i] = b;
+        names[i] = name;
+        kinds[i] = kind;
+        hashes[i] = hash;
+        count++;
+        return i;
+    }
+
+    /**
+     * Doubles the capacity of the table and reinserts every entry
+     */
+    private void grow()
+    {
+        byte[][] oldBytes = bytes;
+        String[] oldNames = names;
+        TokenKind[] oldKinds = kinds;
+        int[] oldHashes = hashes;
+        int capacity = names.length * 2;
+        bytes = new byte[capacity][];
+        names = new String[capacity];
+        kinds = new TokenKind[capacity];
+        hashes = new int[capacity];
+        count = 0;
+        for (int i = 0; i < oldNames.length; i++)
+        {
+            if (oldNames[i] != null)
+            {
+                insert(oldBytes[i], oldNames[i], oldKinds[i], oldHashes[i]);
+            }
+        }
+    }
+
+    /**
+     * Computes the hash of bytes in a buffer
+     * @param buffer the buffer
+     * @param start the position of the first byte
+     * @param length the number of bytes
+     * @return the hash
+     */
+    private static int hash(ByteBuffer buffer, int start, int length)
+    {
+        int h = 0;
+        for (int i = 0; i < length; i++)
+        {
+            h = 31 * h + buffer.get(start + i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Checks to see if the bytes of an entry are the same as bytes in a buffer
+     * @param b the bytes of the entry
+     * @param buffer the buffer
+     * @param start the position of the first byte
+     * @param length the number of bytes
+     * @return true if the bytes are the same; otherwise,
+     * false
+     */
+    private static boolean matches(byte[] b, ByteBuffer buffer, int start, int length)
+    {
+        if (b.length != length)
+        {
+            return false;
+        }
+        for (int i = 0; i < length; i++)
+        {
+            if (b[i] != buffer.get(start + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
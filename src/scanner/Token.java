@@ -0,0 +1,110 @@
+package scanner;
+
+/**
+ * The Token class describes one token of a program: its kind, its text,
+ * where it starts in the source and, for numbers, its value.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class Token
+{
+    private TokenKind kind;
+    private String text;
+    private int line;
+    private int column;
+    private int value;
+
+    /**
+     * Constructor for tokens that are not numbers
+     * @param kind the kind of the token
+     * @param text the text of the token
+     * @param line the line the token starts on, starting at 1
+     * @param column the column the token starts at, starting at 1
+     */
+    public Token(TokenKind kind, String text, int line, int column)
+    {
+        this(kind, text, line, column, 0);
+    }
+
+    /**
+     * Constructor for tokens with a value
+     * @param kind the kind of the token
+     * @param text the text of the token
+     * @param line the line the token starts on, starting at 1
+     * @param column the column the token starts at, starting at 1
+     * @param value the value of the number
+     */
+    public Token(TokenKind kind, String text, int line, int column, int value)
+    {
+        this.kind = kind;
+        this.text = text;
+        this.line = line;
+        this.column = column;
+        this.value = value;
+    }
+
+    /**
+     * Gets the kind of the token
+     * @return the kind of the token
+     */
+    public TokenKind getKind()
+    {
+        return kind;
+    }
+
+    /**
+     * Gets the text of the token
+     * @return the text of the token
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Gets the line the token starts on
+     * @return the line number, starting at 1
+     */
+    public int getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Gets the column the token starts at
+     * @return the column number, starting at 1
+     */
+    public int getColumn()
+    {
+        return column;
+    }
+
+    /**
+     * Gets the value of a number
+     * @return the value of the number, or 0 if the token is not a number
+     */
+    public int getValue()
+    {
+        return value;
+    }
+
+    /**
+     * Describes where the token is, for error messages
+     * @return the line and column of the token
+     */
+    public String getPosition()
+    {
+        return "line " + line + ", column " + column;
+    }
+
+    /**
+     * Gets the text of the token
+     * @return the text of the token
+     */
+    @Override
+    public String toString()
+    {
+        return text;
+    }
+}
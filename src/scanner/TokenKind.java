@@ -0,0 +1,107 @@
+package scanner;
+
+import java.util.*;
+
+/**
+ * The TokenKind enum lists the kinds of tokens found in a program.
+ * Keywords and special characters have a fixed text; identifiers and numbers do not.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public enum TokenKind
+{
+    IDENTIFIER(null),
+    NUMBER(null),
+
+    VAR("VAR"),
+    PROCEDURE("PROCEDURE"),
+    BEGIN("BEGIN"),
+    END("END"),
+    WRITELN("WRITELN"),
+    IF("IF"),
+    THEN("THEN"),
+    WHILE("WHILE"),
+    DO("DO"),
+
+    LEFT_PAREN("("),
+    RIGHT_PAREN(")"),
+    SEMICOLON(";"),
+    COMMA(","),
+    CARET("^"),
+    COLON(":"),
+    ASSIGN(":="),
+    PLUS("+"),
+    MINUS("-"),
+    TIMES("*"),
+    DIVIDE("/"),
+    MOD("%"),
+    PLUS_ASSIGN("+="),
+    MINUS_ASSIGN("-="),
+    TIMES_ASSIGN("*="),
+    DIVIDE_ASSIGN("/="),
+    MOD_ASSIGN("%="),
+    EQUAL("="),
+    EQUAL_EQUAL("=="),
+    NOT_EQUAL("<>"),
+    LESS("<"),
+    GREATER(">"),
+    LESS_EQUAL("<="),
+    GREATER_EQUAL(">="),
+
+    EOF("END");
+
+    private static final Map<String, TokenKind> BY_TEXT = new HashMap<String, TokenKind>();
+
+    static
+    {
+        for (TokenKind kind: values())
+        {
+            if (kind.text != null && kind != EOF)
+            {
+                BY_TEXT.put(kind.text, kind);
+            }
+        }
+    }
+
+    private final String text;
+
+    /**
+     * Constructor for the kinds of tokens
+     * @param text the text of the token, or null if it is an identifier or a number
+     */
+    TokenKind(String text)
+    {
+        this.text = text;
+    }
+
+    /**
+     * Gets the fixed text of the token. The end of the file has the text END,
+     * which is what Scanner.nextToken returns at the end of the file
+     * @return the text of the token, or null for identifiers and numbers
+     */
+    public String getText()
+    {
+        return text;
+    }
+
+    /**
+     * Gets the kind of a keyword, operand or special character from its text
+     * @param text the text of the token
+     * @return the kind with that text, or null if no kind has that text
+     */
+    public static TokenKind forText(String text)
+    {
+        return BY_TEXT.get(text);
+    }
+
+    /**
+     * Checks to see if the token is a keyword
+     * @return true if the token is a keyword; otherwise,
+     * false
+     */
+    public boolean isKeyword()
+    {
+        return compareTo(VAR) >= 0 && compareTo(DO) <= 0;
+    }
+}
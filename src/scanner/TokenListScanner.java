@@ -0,0 +1,81 @@
+package scanner;
+
+import java.util.List;
+
+/**
+ * scanner.TokenListScanner is a scanner that returns tokens that have already been scanned,
+ * in order, and then returns a Token of kind EOF. The tokens keep the lines and columns
+ * where they were found, so a parser.Parser given a TokenListScanner reports errors at
+ * their place in the original source.
+ *
+ * Usage:
+ * scanner.TokenListScanner lex = new scanner.TokenListScanner(tokens);
+ * parser.Parser p = new parser.Parser(lex);
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class TokenListScanner extends Scanner
+{
+    private List<Token> tokens;
+    private int position;
+    private Token eof;
+
+    /**
+     * Constructor for a TokenListScanner that returns the tokens of a list
+     * @param tokens the tokens, in the order they are returned
+     */
+    public TokenListScanner(List<Token> tokens)
+    {
+        this.tokens = tokens;
+        position = 0;
+        if (tokens.isEmpty())
+        {
+            eof = new Token(TokenKind.EOF, TokenKind.EOF.getText(), 1, 1);
+        }
+        else
+        {
+            Token last = tokens.get(tokens.size() - 1);
+            eof = new Token(TokenKind.EOF, TokenKind.EOF.getText(), last.getLine(),
+                    last.getColumn() + last.getText().length());
+        }
+    }
+
+    /**
+     * Checks to see if there are any more tokens in the list
+     *
+     * @return true if not every token has been returned; otherwise,
+     * false
+     */
+    @Override
+    public boolean hasNext()
+    {
+        return position < tokens.size();
+    }
+
+    /**
+     * Gets the text of the next token in the list
+     *
+     * @return the text of the token, or "END" after the last token
+     */
+    @Override
+    public String nextToken()
+    {
+        return next().getText();
+    }
+
+    /**
+     * Gets the next token in the list
+     *
+     * @return the Token, or a Token of kind EOF after the last token
+     */
+    @Override
+    public Token next()
+    {
+        if (!hasNext())
+        {
+            return eof;
+        }
+        return tokens.get(position++);
+    }
+}
@@ -0,0 +1,93 @@
+package vm;
+
+/**
+ * The Bytecode class stores a compiled program: the code of the main statement and
+ * the procedures, and a table describing where each procedure starts and how large its frame is.
+ * The main statement starts at address 0.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class Bytecode
+{
+    private int[] code;
+    private int globalCount;
+    private int maxStack;
+    private int[] entries;
+    private int[] paramCounts;
+    private int[] frameSizes;
+
+    /**
+     * Constructor for objects of class Bytecode
+     * @param code the instructions and operands of the program
+     * @param globalCount the number of global variables
+     * @param maxStack the largest operand stack used by the main statement or any one procedure
+     * @param entries the address of the first instruction of each procedure
+     * @param paramCounts the number of parameters of each procedure
+     * @param frameSizes the number of variable slots of each procedure
+     */
+    public Bytecode(int[] code, int globalCount, int maxStack,
+                    int[] entries, int[] paramCounts, int[] frameSizes)
+    {
+        this.code = code;
+        this.globalCount = globalCount;
+        this.maxStack = maxStack;
+        this.entries = entries;
+        this.paramCounts = paramCounts;
+        this.frameSizes = frameSizes;
+    }
+
+    /**
+     * Gets the instructions and operands of the program
+     * @return the code array
+     */
+    public int[] getCode()
+    {
+        return code;
+    }
+
+    /**
+     * Gets the number of global variables
+     * @return the size of the global frame
+     */
+    public int getGlobalCount()
+    {
+        return globalCount;
+    }
+
+    /**
+     * Gets the largest operand stack used by the main statement or any one procedure
+     * @return the maximum stack height of a single frame
+     */
+    public int getMaxStack()
+    {
+        return maxStack;
+    }
+
+    /**
+     * Gets the address of the first instruction of each procedure
+     * @return the entry addresses, indexed by procedure number
+     */
+    public int[] getEntries()
+    {
+        return entries;
+    }
+
+    /**
+     * Gets the number of parameters of each procedure
+     * @return the parameter counts, indexed by procedure number
+     */
+    public int[] getParamCounts()
+    {
+        return paramCounts;
+    }
+
+    /**
+     * Gets the number of variable slots of each procedure
+     * @return the frame sizes, indexed by procedure number
+     */
+    public int[] getFrameSizes()
+    {
+        return frameSizes;
+    }
+}
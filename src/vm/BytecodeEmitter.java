@@ -0,0 +1,241 @@
+package vm;
+
+import java.util.*;
+
+/**
+ * The BytecodeEmitter class collects the instructions of a program for the VirtualMachine.
+ * Jumps refer to labels, which are patched with addresses when the Bytecode is built,
+ * and calls refer to procedures by number, so procedures can be called before they are compiled.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class BytecodeEmitter
+{
+    private int[] code;
+    private int length;
+    private int depth;
+    private int maxStack;
+    private int globalCount;
+    private List<Integer> labels;
+    private List<int[]> fixups;
+    private Map<String, Integer> procedureIDs;
+    private List<Integer> entries;
+    private List<Integer> paramCounts;
+    private List<Integer> frameSizes;
+
+    /**
+     * Constructor for objects of class BytecodeEmitter
+     */
+    public BytecodeEmitter()
+    {
+        code = new int[64];
+        length = 0;
+        depth = 0;
+        maxStack = 0;
+        globalCount = 0;
+        labels = new ArrayList<Integer>();
+        fixups = new ArrayList<int[]>();
+        procedureIDs = new HashMap<String, Integer>();
+        entries = new ArrayList<Integer>();
+        paramCounts = new ArrayList<Integer>();
+        frameSizes = new ArrayList<Integer>();
+    }
+
+    /**
+     * Sets the number of global variables of the program
+     * @param globalCount the size of the global frame
+     */
+    public void setGlobalCount(int globalCount)
+    {
+        this.globalCount = globalCount;
+    }
+
+    /**
+     * Adds a procedure to the procedure table. Declaring a procedure again with the same
+     * name replaces it, the same way a later declaration replaces an earlier one in an Environment
+     * @param name the name of the procedure
+     * @param paramCount the number of parameters of the procedure
+     * @param frameSize the number of variable slots of the procedure
+     */
+    public void declareProcedure(String name, int paramCount, int frameSize)
+    {
+        Integer id = procedureIDs.get(name);
+        if (id == null)
+        {
+            procedureIDs.put(name, entries.size());
+            entries.add(-1);
+            paramCounts.add(paramCount);
+            frameSizes.add(frameSize);
+        }
+        else
+        {
+            paramCounts.set(id, paramCount);
+            frameSizes.set(id, frameSize);
+        }
+    }
+
+    /**
+     * Gets the number of parameters of a declared procedure
+     * @param name the name of the procedure
+     * @return the number of parameters
+     * @throws RuntimeException if the procedure has not been declared
+     */
+    public int getParamCount(String name)
+    {
+        Integer id = procedureIDs.get(name);
+        if (id == null)
+        {
+            throw new RuntimeException("Procedure " + name + " is not declared");
+        }
+        return paramCounts.get(id);
+    }
+
+    /**
+     * Marks the current address as the start of a procedure's code
+     * @param name the name of the procedure
+     */
+    public void beginProcedure(String name)
+    {
+        entries.set(procedureID(name), length);
+        depth = 0;
+    }
+
+    /**
+     * Emits an instruction without operands
+     * @param op the opcode
+     */
+    public void emit(int op)
+    {
+        write(op);
+        adjustStack(Opcode.stackEffect(op));
+    }
+
+    /**
+     * Emits an instruction with one operand
+     * @param op the opcode
+     * @param operand the operand of the instruction
+     */
+    public void emit(int op, int operand)
+    {
+        write(op);
+        write(operand);
+        adjustStack(Opcode.stackEffect(op));
+    }
+
+    /**
+     * Emits a call to a procedure whose arguments have already been pushed
+     * @param name the name of the procedure
+     * @param argCount the number of arguments that were pushed
+     */
+    public void emitCall(String name, int argCount)
+    {
+        write(Opcode.CALL);
+        write(procedureID(name));
+        write(argCount);
+        adjustStack(1 - argCount);
+    }
+
+    /**
+     * Creates a new label that has not been placed yet
+     * @return the id of the label
+     */
+    public int newLabel()
+    {
+        labels.add(-1);
+        return labels.size() - 1;
+    }
+
+    /**
+     * Places a label at the current address
+     * @param label the id of the label
+     */
+    public void placeLabel(int label)
+    {
+        labels.set(label, length);
+    }
+
+    /**
+     * Emits a jump to a label
+     * @param op the jump opcode
+     * @param label the id of the label to jump to
+     */
+    public void emitJump(int op, int label)
+    {
+        write(op);
+        fixups.add(new int[] {length, label});
+        write(-1);
+        adjustStack(Opcode.stackEffect(op));
+    }
+
+    /**
+     * Patches the jumps with the addresses of their labels and builds the program
+     * @return the compiled program
+     */
+    public Bytecode build()
+    {
+        for (int[] fixup: fixups)
+        {
+            code[fixup[0]] = labels.get(fixup[1]);
+        }
+        int count = entries.size();
+        int[] entryArray = new int[count];
+        int[] paramArray = new int[count];
+        int[] frameArray = new int[count];
+        for (Map.Entry<String, Integer> procedure: procedureIDs.entrySet())
+        {
+            int id = procedure.getValue();
+            if (entries.get(id) < 0)
+            {
+                throw new RuntimeException("Procedure " + procedure.getKey() + " is not declared");
+            }
+            entryArray[id] = entries.get(id);
+            paramArray[id] = paramCounts.get(id);
+            frameArray[id] = frameSizes.get(id);
+        }
+        return new Bytecode(Arrays.copyOf(code, length), globalCount, maxStack,
+                entryArray, paramArray, frameArray);
+    }
+
+    /**
+     * Gets the number of a procedure, adding it to the table if it has not been declared yet
+     * @param name the name of the procedure
+     * @return the number of the procedure
+     */
+    private int procedureID(String name)
+    {
+        if (!procedureIDs.containsKey(name))
+        {
+            declareProcedure(name, 0, 1);
+        }
+        return procedureIDs.get(name);
+    }
+
+    /**
+     * Appends one int to the code array, growing it if it is full
+     * @param value the value to be appended
+     */
+    private void write(int value)
+    {
+        if (length == code.length)
+        {
+            code = Arrays.copyOf(code, length * 2);
+        }
+        code[length] = value;
+        length++;
+    }
+
+    /**
+     * Tracks the height of the operand stack so that the VirtualMachine
+     * knows how much stack each frame can need
+     * @param effect the change in the height of the stack
+     */
+    private void adjustStack(int effect)
+    {
+        depth += effect;
+        if (depth > maxStack)
+        {
+            maxStack = depth;
+        }
+    }
+}
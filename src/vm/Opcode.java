@@ -0,0 +1,155 @@
+package vm;
+
+/**
+ * The Opcode class defines the instructions of the stack bytecode run by the VirtualMachine.
+ * Each instruction is one int in the code array, followed by its operands.
+ *
+ * PUSH value          pushes a constant
+ * LOAD_GLOBAL slot    pushes a global variable
+ * STORE_GLOBAL slot   pops a value into a global variable
+ * LOAD_LOCAL slot     pushes a variable of the current procedure
+ * STORE_LOCAL slot    pops a value into a variable of the current procedure
+ * ADD, SUB, MUL, DIV  pops two values and pushes the result of the operation
+ * EQ, NE, LT, GT, LE, GE   pops two values and pushes 1 if the comparison is true, 0 if not
+ * JUMP target         jumps to an address
+ * JUMP_EQ ... JUMP_GE target   pops two values and jumps if the comparison is true
+ * WRITELN             pops a value and prints it
+ * CALL index argc     pops argc arguments and calls a procedure
+ * RETURN              returns the value of slot 0 of the procedure to the caller
+ * HALT                stops the program
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public final class Opcode
+{
+    public static final int HALT = 0;
+    public static final int PUSH = 1;
+    public static final int LOAD_GLOBAL = 2;
+    public static final int STORE_GLOBAL = 3;
+    public static final int LOAD_LOCAL = 4;
+    public static final int STORE_LOCAL = 5;
+    public static final int ADD = 6;
+    public static final int SUB = 7;
+    public static final int MUL = 8;
+    public static final int DIV = 9;
+    public static final int EQ = 10;
+    public static final int NE = 11;
+    public static final int LT = 12;
+    public static final int GT = 13;
+    public static final int LE = 14;
+    public static final int GE = 15;
+    public static final int JUMP = 16;
+    public static final int JUMP_EQ = 17;
+    public static final int JUMP_NE = 18;
+    public static final int JUMP_LT = 19;
+    public static final int JUMP_GT = 20;
+    public static final int JUMP_LE = 21;
+    public static final int JUMP_GE = 22;
+    public static final int WRITELN = 23;
+    public static final int CALL = 24;
+    public static final int RETURN = 25;
+
+    private static final int[] STACK_EFFECT = {
+        0, 1, 1, -1, 1, -1, -1, -1, -1, -1,
+        -1, -1, -1, -1, -1, -1, 0, -2, -2, -2,
+        -2, -2, -2, -1, 0, 0
+    };
+
+    /**
+     * Opcode only holds constants and should not be instantiated
+     */
+    private Opcode()
+    {
+    }
+
+    /**
+     * Gets the change in the height of the operand stack caused by an instruction.
+     * CALL is not included because its effect depends on the number of arguments
+     * @param op the opcode
+     * @return the number of values pushed minus the number of values popped
+     */
+    public static int stackEffect(int op)
+    {
+        return STACK_EFFECT[op];
+    }
+
+    /**
+     * Gets the relative operator of a comparison as the opcode that pushes its result
+     * @param relop a String representing the relative operator
+     * @return the comparison opcode
+     */
+    public static int compare(String relop)
+    {
+        if (relop.equals("="))
+        {
+            return EQ;
+        }
+        else if (relop.equals("<>"))
+        {
+            return NE;
+        }
+        else if (relop.equals("<"))
+        {
+            return LT;
+        }
+        else if (relop.equals(">"))
+        {
+            return GT;
+        }
+        else if (relop.equals("<="))
+        {
+            return LE;
+        }
+        else if (relop.equals(">="))
+        {
+            return GE;
+        }
+        throw new IllegalArgumentException("Unknown relative operator: " + relop);
+    }
+
+    /**
+     * Gets the jump that is taken when a comparison is false,
+     * such as JUMP_GE for the relative operator {@literal <}
+     * @param relop a String representing the relative operator
+     * @return the conditional jump opcode for the opposite comparison
+     */
+    public static int jumpUnless(String relop)
+    {
+        switch (compare(relop))
+        {
+            case EQ: return JUMP_NE;
+            case NE: return JUMP_EQ;
+            case LT: return JUMP_GE;
+            case GT: return JUMP_LE;
+            case LE: return JUMP_GT;
+            default: return JUMP_LT;
+        }
+    }
+
+    /**
+     * Gets the opcode of an arithmetic operator
+     * @param op a String containing the binary operator
+     * @return the arithmetic opcode
+     */
+    public static int arithmetic(String op)
+    {
+        if (op.equals("+"))
+        {
+            return ADD;
+        }
+        else if (op.equals("-"))
+        {
+            return SUB;
+        }
+        else if (op.equals("*"))
+        {
+            return MUL;
+        }
+        else if (op.equals("/"))
+        {
+            return DIV;
+        }
+        throw new IllegalArgumentException("Unknown operator: " + op);
+    }
+}
@@ -0,0 +1,211 @@
+package vm;
+
+import ast.Program;
+import parser.Parser;
+import scanner.*;
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * The VirtualMachine class runs Bytecode with a single dispatch loop.
+ * Procedure calls push a record onto an explicit call stack instead of recursing in Java,
+ * and all procedures share one operand stack.
+ *
+ * @author Gabriel Chai
+ * @version October 18, 2026
+ */
+public class VirtualMachine
+{
+    private PrintStream out;
+
+    /**
+     * Constructor for a VirtualMachine that prints to the standard output
+     */
+    public VirtualMachine()
+    {
+        this(System.out);
+    }
+
+    /**
+     * Constructor for a VirtualMachine that prints to a given stream
+     * @param out the stream that WRITELN prints to
+     */
+    public VirtualMachine(PrintStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Runs a program until it halts
+     * @param program the compiled program
+     */
+    public void run(Bytecode program)
+    {
+        int[] code = program.getCode();
+        int[] entries = program.getEntries();
+        int[] paramCounts = program.getParamCounts();
+        int[] frameSizes = program.getFrameSizes();
+        int maxStack = program.getMaxStack();
+
+        int[] stack = new int[maxStack + 1];
+        int sp = 0;
+        int[] globals = new int[program.getGlobalCount()];
+        int[] locals = globals;
+
+        int[][] savedLocals = new int[16][];
+        int[] returnAddresses = new int[16];
+        int fp = 0;
+
+        int pc = 0;
+        while (true)
+        {
+            int a;
+            int b;
+            switch (code[pc++])
+            {
+                case Opcode.HALT:
+                    return;
+                case Opcode.PUSH:
+                    stack[sp++] = code[pc++];
+                    break;
+                case Opcode.LOAD_GLOBAL:
+                    stack[sp++] = globals[code[pc++]];
+                    break;
+                case Opcode.STORE_GLOBAL:
+                    globals[code[pc++]] = stack[--sp];
+                    break;
+                case Opcode.LOAD_LOCAL:
+                    stack[sp++] = locals[code[pc++]];
+                    break;
+                case Opcode.STORE_LOCAL:
+                    locals[code[pc++]] = stack[--sp];
+                    break;
+                case Opcode.ADD:
+                    sp--;
+                    stack[sp - 1] += stack[sp];
+                    break;
+                case Opcode.SUB:
+                    sp--;
+                    stack[sp - 1] -= stack[sp];
+                    break;
+                case Opcode.MUL:
+                    sp--;
+                    stack[sp - 1] *= stack[sp];
+                    break;
+                case Opcode.DIV:
+                    sp--;
+                    stack[sp - 1] /= stack[sp];
+                    break;
+                case Opcode.EQ:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] == stack[sp] ? 1 : 0;
+                    break;
+                case Opcode.NE:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] != stack[sp] ? 1 : 0;
+                    break;
+                case Opcode.LT:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] < stack[sp] ? 1 : 0;
+                    break;
+                case Opcode.GT:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] > stack[sp] ? 1 : 0;
+                    break;
+                case Opcode.LE:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] <= stack[sp] ? 1 : 0;
+                    break;
+                case Opcode.GE:
+                    sp--;
+                    stack[sp - 1] = stack[sp - 1] >= stack[sp] ? 1 : 0;
+                    break;
+                case Opcode.JUMP:
+                    pc = code[pc];
+                    break;
+                case Opcode.JUMP_EQ:
+                    b = stack[--sp];
+                    a = stack[--sp];
+                    pc = a == b ? code[pc] : pc + 1;
+                    break;
+                case Opcode.JUMP_NE:
+                    b = stack[--sp];
+                    a = stack[--sp];
+                    pc = a != b ? code[pc] : pc + 1;
+                    break;
+                case Opcode.JUMP_LT:
+                    b = stack[--sp];
+                    a = stack[--sp];
+                    pc = a < b ? code[pc] : pc + 1;
+                    break;
+                case Opcode.JUMP_GT:
+                    b = stack[--sp];
+                    a = stack[--sp];
+                    pc = a > b ? code[pc] : pc + 1;
+                    break;
+                case Opcode.JUMP_LE:
+                    b = stack[--sp];
+                    a = stack[--sp];
+                    pc = a <= b ? code[pc] : pc + 1;
+                    break;
+                case Opcode.JUMP_GE:
+                    b = stack[--sp];
+                    a = stack[--sp];
+                    pc = a >= b ? code[pc] : pc + 1;
+                    break;
+                case Opcode.WRITELN:
+                    out.println(stack[--sp]);
+                    break;
+                case Opcode.CALL:
+                {
+                    int id = code[pc++];
+                    int argCount = code[pc++];
+                    int[] frame = new int[frameSizes[id]];
+                    int count = Math.min(argCount, paramCounts[id]);
+                    sp -= argCount;
+                    System.arraycopy(stack, sp, frame, 1, count);
+                    if (fp == returnAddresses.length)
+                    {
+                        savedLocals = Arrays.copyOf(savedLocals, fp * 2);
+                        returnAddresses = Arrays.copyOf(returnAddresses, fp * 2);
+                    }
+                    savedLocals[fp] = locals;
+                    returnAddresses[fp] = pc;
+                    fp++;
+                    if (sp + maxStack >= stack.length)
+                    {
+                        stack = Arrays.copyOf(stack, (sp + maxStack) * 2);
+                    }
+                    locals = frame;
+                    pc = entries[id];
+                    break;
+                }
+                case Opcode.RETURN:
+                    fp--;
+                    stack[sp++] = locals[0];
+                    locals = savedLocals[fp];
+                    savedLocals[fp] = null;
+                    pc = returnAddresses[fp];
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[pc - 1]
+                            + " at address " + (pc - 1));
+            }
+        }
+    }
+
+    /**
+     * Parses the program in a file, compiles it to bytecode and runs it
+     * @param args the name of the file containing the program
+     * @throws IOException if the file being scanned does not exist
+     * @throws ScanErrorException if the expected value in the character in the input stream
+     *                            does not match the actual value
+     */
+    public static void main (String[] args) throws IOException, ScanErrorException
+    {
+        Scanner sc = new Scanner(new FileInputStream(new File(args[0])));
+        Parser p = new Parser(sc);
+        Program program = p.parseProgram().optimize();
+        new VirtualMachine().run(program.compile());
+    }
+}